@@ -0,0 +1,86 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import java.util.Arrays;
+
+import static de.ensel.chessbasics.ChessBasics.*;
+import static de.ensel.tideeval.ChessBoard.MAX_INTERESTING_NROF_HOPS;
+
+/**
+ * Attack index of one position, built once per ChessBoard.completeCalc() after the distance calculation, when
+ * the distances and coverage lists do not change any more.
+ * Per color and future level it holds a bitmap (bit n for position n, see RayAttacks) of the squares
+ * - attacked/covered at that coverOrAttackDistance() (level 1 = directly), resp.
+ * - reachable at that raw distance without a NoGo.
+ * So questions like "can the opponent attack this square in one move at all?" are answered
+ * by a bit test instead of a run over all vPces of the square.
+ * (Counts of direct attackers are not needed here, Square.countDirectAttacksWithColor() already answers them
+ * from its coverage counters.)
+ */
+final class AttackIndex {
+    private static final int LEVELS = MAX_INTERESTING_NROF_HOPS + 1;   // levels 0..MAX_INTERESTING_NROF_HOPS
+
+    private final long[][] attacked = new long[2][LEVELS];    // [colorIndex][coverOrAttackDistance]
+    private final long[][] reachable = new long[2][LEVELS];   // [colorIndex][raw distance without NoGo]
+
+    void build(final Square[] squares) {
+        for (int ci = 0; ci <= 1; ci++) {
+            Arrays.fill(attacked[ci], 0L);
+            Arrays.fill(reachable[ci], 0L);
+        }
+        for (final Square sq : squares) {
+            final int pos = sq.getMyPos();
+            final long bit = RayAttacks.posBit(pos);
+            for (final VirtualPieceOnSquare vPce : sq.getVPieces()) {
+                if (vPce == null)
+                    continue;
+                final int ci = colorIndex(vPce.color());
+                final int d = vPce.coverOrAttackDistance();
+                if (d < LEVELS)
+                    attacked[ci][d] |= bit;
+                final ConditionalDistance rmd = vPce.getRawMinDistanceFromPiece();
+                if (rmd.dist() < LEVELS && !rmd.hasNoGo())
+                    reachable[ci][rmd.dist()] |= bit;
+            }
+        }
+    }
+
+    /**
+     * @return bitmap of the squares that pieces of color index ci attack/cover at coverOrAttackDistance()==level
+     */
+    long attackedBitmap(final int ci, final int level) {
+        return level < LEVELS ? attacked[ci][level] : 0L;
+    }
+
+    boolean isAttackedAt(final int ci, final int level, final int pos) {
+        return RayAttacks.isPosInBitmap(pos, attackedBitmap(ci, level));
+    }
+
+    /**
+     * @return bitmap of the squares that pieces of color index ci reach at raw distance level without a NoGo
+     */
+    long reachableBitmap(final int ci, final int level) {
+        return level < LEVELS ? reachable[ci][level] : 0L;
+    }
+
+    boolean isReachableAt(final int ci, final int level, final int pos) {
+        return RayAttacks.isPosInBitmap(pos, reachableBitmap(ci, level));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable selector of the best (top) moves out of a stream of evaluated move candidates for one color.
+ * The top moves are kept sorted in a fixed array of maxTopEntries (best first), the moves that do not make it
+ * or drop out of the top are spilled unsorted into the rest moves. clear() empties both without freeing their
+ * memory, so after warm-up selecting does not allocate.
+ * Moves are compared with EvaluatedMove.isBetterForColorThan(), which works with thresholds per future level and
+ * is not transitive. So this is not a heap: a candidate is compared upwards from the worst top move, like
+ * inserting into a sorted list. This keeps the exact ranking of the sequential insertion, while a candidate that
+ * is not better than the worst top move (the usual case) still costs only one comparison.
+ */
+final class BestMovesSelector {
+    private final boolean color;
+    private EvaluatedMove[] top;
+    private int size = 0;
+    private int maxTopEntries;
+    private final ArrayList<EvaluatedMove> restMoves;
+
+    private final List<EvaluatedMove> topMovesView = new AbstractList<>() {
+        @Override
+        public EvaluatedMove get(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException(index);
+            return top[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
+
+    BestMovesSelector(final boolean color, final int maxTopEntries) {
+        this.color = color;
+        this.maxTopEntries = maxTopEntries;
+        this.top = new EvaluatedMove[maxTopEntries];
+        this.restMoves = new ArrayList<>(maxTopEntries);
+    }
+
+    /**
+     * empties top and rest moves and sets a (maybe new) max nr of top moves
+     */
+    void clear(final int maxTopEntries) {
+        Arrays.fill(top, 0, size, null);
+        size = 0;
+        restMoves.clear();
+        this.maxTopEntries = maxTopEntries;
+        if (top.length < maxTopEntries)
+            top = new EvaluatedMove[maxTopEntries];
+    }
+
+    /**
+     * See if evMove is among the best, i.e. best or max maxTopEntries-st best, in the top moves.
+     * If yes it is put there, else into restMoves. If the top moves get too many, the lowest is moved to restMoves.
+     * @param evMove move to be sorted in
+     * @return true if evMove is a new best move, false otherwise
+     */
+    boolean add(final EvaluatedMove evMove) {
+        int i = size - 1;
+        while (i >= 0 && evMove.isBetterForColorThan(color, top[i]))
+            i--;
+        // evMove belongs to index i+1: it is not better than top[i], but better than all below
+        final int insertAt = i + 1;
+        if (insertAt >= maxTopEntries) {
+            restMoves.add(evMove);
+            return false;
+        }
+        if (size == maxTopEntries)
+            restMoves.add(top[--size]);
+        System.arraycopy(top, insertAt, top, insertAt + 1, size - insertAt);
+        top[insertAt] = evMove;
+        size++;
+        return insertAt == 0;
+    }
+
+    /**
+     * tells if add() would certainly not take a move into the top moves, whose eval at level 0 is at most (from
+     * color's perspective) optimisticEval0 - whatever its evals at the further levels are. This allows to skip
+     * the expensive calculation of the move's real eval.
+     */
+    boolean certainlyRejects(final int optimisticEval0) {
+        return size == maxTopEntries
+                && Evaluation.isWorseAt0ForColorThan(color, optimisticEval0, top[size - 1].getEvalAt(0));
+    }
+
+    /**
+     * @return the top moves, best first. This is a live view, it changes with add() and clear().
+     */
+    List<EvaluatedMove> getTopMoves() {
+        return topMovesView;
+    }
+
+    /**
+     * @return the moves that did not make it into the top moves, not sorted. Also a live view.
+     */
+    List<EvaluatedMove> getRestMoves() {
+        return restMoves;
+    }
+
+    int size() {
+        return size + restMoves.size();
+    }
+}
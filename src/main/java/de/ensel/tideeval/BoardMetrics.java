@@ -0,0 +1,163 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import java.util.Arrays;
+
+import static de.ensel.chessbasics.ChessBasics.*;
+import static de.ensel.tideeval.ChessBoard.MAX_INTERESTING_NROF_HOPS;
+
+/**
+ * Counters and timings of the calculation of one ChessBoard: propagations per piece type and hop level,
+ * high-water marks of the propagation ques, vPce resets and the wall time spent in the phases of
+ * completeCalc() and the move selection.
+ * The board resets it before each move, so it always describes the work for the current position.
+ */
+public final class BoardMetrics {
+
+    public enum Phase {
+        DISTANCE_CALC,
+        PREDECESSORS,
+        MOBILITY,
+        CHECKS,
+        FUTURE_CLASHES,
+        EXTRA_BENEFITS,
+        FORKS,
+        BLOCKING,
+        MOVE_SELECTION
+    }
+
+    // que indexes above this are counted together in the last slot
+    static final int MAX_COUNTED_HOPS = MAX_INTERESTING_NROF_HOPS + 3;
+
+    private final long[][] propagations = new long[PAWN + 1][MAX_COUNTED_HOPS + 1];   // [colorless pceType][hops]
+    private final int[] queHighWaterMarks = new int[MAX_COUNTED_HOPS + 1];           // [hops]
+    private long vPceResets;
+    private final long[] phaseNanos = new long[Phase.values().length];
+
+    public void reset() {
+        for (long[] p : propagations)
+            Arrays.fill(p, 0);
+        Arrays.fill(queHighWaterMarks, 0);
+        vPceResets = 0;
+        Arrays.fill(phaseNanos, 0);
+    }
+
+    void countPropagation(final int pceType, final int hops) {
+        propagations[colorlessPieceType(pceType)][Math.min(hops, MAX_COUNTED_HOPS)]++;
+    }
+
+    void recordQueSize(final int hops, final int queSize) {
+        final int h = Math.min(hops, MAX_COUNTED_HOPS);
+        if (queSize > queHighWaterMarks[h])
+            queHighWaterMarks[h] = queSize;
+    }
+
+    void countVPceReset() {
+        vPceResets++;
+    }
+
+    void addPhaseTime(final Phase phase, final long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * @param pceType piece type (color is ignored)
+     * @param hops que index (=hop level) the propagation was run at
+     * @return nr of executed propagations
+     */
+    public long getPropagations(final int pceType, final int hops) {
+        return propagations[colorlessPieceType(pceType)][Math.min(hops, MAX_COUNTED_HOPS)];
+    }
+
+    public long getPropagations() {
+        long sum = 0;
+        for (long[] perType : propagations)
+            for (long p : perType)
+                sum += p;
+        return sum;
+    }
+
+    /**
+     * @return the biggest size a propagation que of one piece reached at hop level hops
+     */
+    public int getQueHighWaterMark(final int hops) {
+        return queHighWaterMarks[Math.min(hops, MAX_COUNTED_HOPS)];
+    }
+
+    public int getQueHighWaterMark() {
+        return Arrays.stream(queHighWaterMarks).max().orElse(0);
+    }
+
+    public long getVPceResets() {
+        return vPceResets;
+    }
+
+    public long getPhaseNanos(final Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public long getTotalNanos() {
+        return Arrays.stream(phaseNanos).sum();
+    }
+
+    public String phaseTimesDescription() {
+        StringBuilder s = new StringBuilder();
+        for (Phase phase : Phase.values())
+            s.append(phase.name().toLowerCase()).append('=')
+                    .append(String.format("%.2f", phaseNanos[phase.ordinal()] / 1_000_000.0)).append(' ');
+        s.append("(total ").append(String.format("%.2f", getTotalNanos() / 1_000_000.0)).append(" ms)");
+        return s.toString();
+    }
+
+    public String propagationsDescription() {
+        StringBuilder s = new StringBuilder();
+        s.append(getPropagations());
+        for (int pt = KING; pt <= PAWN; pt++) {
+            long sum = 0;
+            for (long p : propagations[pt])
+                sum += p;
+            if (sum == 0)
+                continue;
+            s.append(" ").append(fenCharFromPceType(pt)).append(":");
+            for (int h = 0; h <= MAX_COUNTED_HOPS; h++)
+                if (propagations[pt][h] > 0)
+                    s.append(" ").append(h).append("=").append(propagations[pt][h]);
+        }
+        return s.toString();
+    }
+
+    public String queHighWaterMarksDescription() {
+        StringBuilder s = new StringBuilder();
+        s.append(getQueHighWaterMark()).append(" (");
+        for (int h = 0; h <= MAX_COUNTED_HOPS; h++)
+            if (queHighWaterMarks[h] > 0)
+                s.append(" ").append(h).append("=").append(queHighWaterMarks[h]);
+        s.append(" )");
+        return s.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "Propagations: " + propagationsDescription()
+                + ", que high-water marks: " + queHighWaterMarksDescription()
+                + ", vPce resets: " + vPceResets
+                + ", phase times (ms): " + phaseTimesDescription();
+    }
+}
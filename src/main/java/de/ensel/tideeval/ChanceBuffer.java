@@ -0,0 +1,117 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import java.util.Arrays;
+
+/**
+ * Staged writes of one square evaluation, for evaluating squares concurrently (see ChessBoard.setParallelSquarePhases()).
+ * While a buffer is active for the current thread, the vPces do not change their chances, move away chances and
+ * clash contributions, but stage these writes here. Afterwards the buffers are applied one after the other in
+ * square order, so the vPces receive exactly the same writes in the same order as in a sequential evaluation.
+ */
+final class ChanceBuffer {
+    private static final int CHANCE = 0;
+    private static final int MOVE_AWAY_CHANCE = 1;
+    private static final int CLASH_CONTRIB = 2;
+    private static final int FIRST_MOVE = 3;     // a move that is added to an empty set of first moves of a vPce
+
+    private static final ThreadLocal<ChanceBuffer> ACTIVE = new ThreadLocal<>();
+
+    private VirtualPieceOnSquare[] vPces = new VirtualPieceOnSquare[64];
+    private int[] kinds = new int[64];
+    private int[] benefits = new int[64];
+    private int[] futureLevels = new int[64];
+    private int[] targets = new int[64];
+    private int size = 0;
+
+    /**
+     * @return the buffer that collects the writes of the current thread or null if writes are applied directly
+     */
+    static ChanceBuffer active() {
+        return ACTIVE.get();
+    }
+
+    void activate() {
+        ACTIVE.set(this);
+    }
+
+    static void deactivate() {
+        ACTIVE.remove();
+    }
+
+    void stageChance(final VirtualPieceOnSquare vPce, final int benefit, final int futureLevel, final int target) {
+        stage(CHANCE, vPce, benefit, futureLevel, target);
+    }
+
+    void stageMoveAwayChance(final VirtualPieceOnSquare vPce, final int benefit, final int futureLevel, final int target) {
+        stage(MOVE_AWAY_CHANCE, vPce, benefit, futureLevel, target);
+    }
+
+    void stageClashContrib(final VirtualPieceOnSquare vPce, final int relClashContrib) {
+        stage(CLASH_CONTRIB, vPce, relClashContrib, 0, 0);
+    }
+
+    /**
+     * stages adding the move from vPce's position to toPos to vPce's first moves, if it has none
+     */
+    void stageFirstMove(final VirtualPieceOnSquare vPce, final int toPos) {
+        stage(FIRST_MOVE, vPce, 0, 0, toPos);
+    }
+
+    private void stage(final int kind, final VirtualPieceOnSquare vPce,
+                       final int benefit, final int futureLevel, final int target) {
+        if (size == kinds.length) {
+            final int newLen = size << 1;
+            vPces = Arrays.copyOf(vPces, newLen);
+            kinds = Arrays.copyOf(kinds, newLen);
+            benefits = Arrays.copyOf(benefits, newLen);
+            futureLevels = Arrays.copyOf(futureLevels, newLen);
+            targets = Arrays.copyOf(targets, newLen);
+        }
+        vPces[size] = vPce;
+        kinds[size] = kind;
+        benefits[size] = benefit;
+        futureLevels[size] = futureLevel;
+        targets[size] = target;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * applies all staged writes in the order they were staged and empties the buffer.
+     * Must not be called while a buffer is active for the current thread.
+     */
+    void applyAndClear() {
+        for (int i = 0; i < size; i++) {
+            final VirtualPieceOnSquare vPce = vPces[i];
+            switch (kinds[i]) {
+                case CHANCE -> vPce.addChanceLowLevel(benefits[i], futureLevels[i], targets[i]);
+                case MOVE_AWAY_CHANCE -> vPce.addMoveAwayChance(benefits[i], futureLevels[i], targets[i]);
+                case CLASH_CONTRIB -> vPce.addClashContrib(benefits[i]);
+                case FIRST_MOVE -> vPce.addFirstMoveTargetIfNone(targets[i]);
+            }
+            vPces[i] = null;
+        }
+        size = 0;
+    }
+}
@@ -19,9 +19,10 @@
 package de.ensel.tideeval;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import static de.ensel.chessbasics.ChessBasics.*;
-import static de.ensel.tideeval.EvaluatedMove.addEvaluatedMoveToSortedListOfCol;
 import static de.ensel.tideeval.Move.getMoves;
 import static java.lang.Math.*;
 import static java.text.MessageFormat.*;
@@ -71,9 +72,38 @@ public class ChessBoard {
 
     private int currentDistanceCalcLimit;
     private int[][] nrOfKingAreaAttacks = new int[2][2];    // nr of direct (inkl. 2nd row) attacks to [king of colorindex] by [piece of colorindex]
+
+    private static final int KING_ZONE_RINGS = 4;   // rings 0..3 around a king count for king safety
+    // [kingPos][ring] -> bitmap of the positions with distanceBetween()==ring from kingPos
+    private static final long[][] KING_ZONE_RING_MASKS = new long[NR_SQUARES][KING_ZONE_RINGS];
+
+    static {
+        for (int kingPos = 0; kingPos < NR_SQUARES; kingPos++)
+            for (int pos = 0; pos < NR_SQUARES; pos++) {
+                int ring = distanceBetween(pos, kingPos);
+                if (ring < KING_ZONE_RINGS)
+                    KING_ZONE_RING_MASKS[kingPos][ring] |= RayAttacks.posBit(pos);
+            }
+    }
+
+    // Square.getAttacksValueForColor() per [colorindex][pos], kept up to date by the squares, and their sums per
+    // [king of colorindex][attacks of colorindex][ring], summed up for the king position in kingZoneSumsKingPos
+    private final int[][] squareAttacksValues = new int[2][NR_SQUARES];
+    private final int[][][] kingZoneAttacksValues = new int[2][2][KING_ZONE_RINGS];
+    private final int[] kingZoneSumsKingPos = {NOWHERE, NOWHERE};
  //   private int[] nrOfFutureKingAreaAttackDangers = new int[2];    // nr of future attacks to [king of colorindex]
 
     public static int MAX_INTERESTING_NROF_HOPS = 6; // sufficient for pawns to see their future as a nice queen :-)
+    /**
+     * if set, the square phases of completeCalc() evaluate the squares concurrently, staging their writes
+     * into one ChanceBuffer per square, which are applied in square order afterwards.
+     */
+    private static boolean parallelSquarePhases = false;
+    /**
+     * if set, getBestMoveForColWhileAvoiding() reevaluates the candidate moves concurrently, each into its own
+     * result, which are then added to the best moves in the same order as when reevaluated sequentially.
+     */
+    private static boolean parallelMoveReevaluation = false;
     private int[] nrOfLegalMoves = new int[2];
     protected EvaluatedMove bestMove;
 
@@ -83,6 +113,17 @@ public class ChessBoard {
     private int repetitions;
 
     private Square[] boardSquares;
+    private long occupiedBitmap;   // bit n is set, if a piece stands on position n (see RayAttacks)
+    private final BoardMetrics metrics = new BoardMetrics();
+    private final AttackIndex attackIndex = new AttackIndex();
+    private final BestMovesSelector[] bestMovesSelectors = {       // per colorIndex, see getBestMoveForColWhileAvoiding()
+            new BestMovesSelector(WHITE, 20), new BestMovesSelector(BLACK, 20) };
+    private final HindranceMasks oppMoveHindrances = new HindranceMasks();   // of the bestOpponentMoves in getBestMoveForColWhileAvoiding()
+    // pin map, see buildPinMap(): pinned pieces per colorIndex and the pin ray mask per position of a pinned piece
+    private final long[] pinnedBitmap = new long[2];
+    private final long[] pinRayMask = new long[NR_SQUARES];
+    private long pinMapClock = -1;   // update clock when the pin map was built
+    private final ChanceBuffer[] squareChanceBuffers = new ChanceBuffer[NR_SQUARES];
     String fenPosAndMoves;
 
     private static int engineP1 = 0;  // engine option - used at varying places for optimization purposes.
@@ -152,9 +193,14 @@ public class ChessBoard {
         }
         nextFreePceID = 0;
         boardSquares = new Square[NR_SQUARES];
+        occupiedBitmap = 0L;
         for (int p = 0; p < NR_SQUARES; p++) {
             boardSquares[p] = new Square(this, p);
         }
+        for (int ci = 0; ci <= 1; ci++) {
+            Arrays.fill(squareAttacksValues[ci], 0);
+            kingZoneSumsKingPos[ci] = NOWHERE;
+        }
     }
 
     private void setDefaultBoardState() {
@@ -449,33 +495,79 @@ public class ChessBoard {
     }
 
     int evaluateOpponentKingAreaAttack() {
-        int pos;
         int[] sum = {0, 0, 0, 0};
-        for (pos = 0; pos < NR_SQUARES; pos++) {
-            int dbk = distanceToKing(pos, BLACK);
-            int dwk = distanceToKing(pos, WHITE);
-            if (dbk < 4)
-                sum[dbk] += boardSquares[pos].getAttacksValueForColor(WHITE);
-            if (dwk < 4)
-                sum[dwk] -= boardSquares[pos].getAttacksValueForColor(BLACK);
-        }
+        addKingZoneAttacksValues(sum, BLACK, WHITE, +1);
+        addKingZoneAttacksValues(sum, WHITE, BLACK, -1);
         return sum[1] * 2 + sum[2] + sum[3] / 3;
     }
 
     int evaluateOwnKingAreaDefense() {
-        int pos;
         int[] sum = {0, 0, 0, 0};
-        for (pos = 0; pos < NR_SQUARES; pos++) {
-            int dbk = distanceToKing(pos, BLACK);
-            int dwk = distanceToKing(pos, WHITE);
-            if (dbk <= 3)
-                sum[dbk] -= boardSquares[pos].getAttacksValueForColor(BLACK);
-            if (dwk <= 3)
-                sum[dwk] += boardSquares[pos].getAttacksValueForColor(WHITE);
-        }
+        addKingZoneAttacksValues(sum, BLACK, BLACK, -1);
+        addKingZoneAttacksValues(sum, WHITE, WHITE, +1);
         return sum[1] + sum[2] + sum[3] / 4;
     }
 
+    /**
+     * adds the attacks values of attackerCol per ring around the king of kingCol to sum[ring]
+     * @param sign +1 to add, -1 to subtract
+     */
+    private void addKingZoneAttacksValues(final int[] sum, final boolean kingCol, final boolean attackerCol,
+                                          final int sign) {
+        final int kingPos = getKingPos(kingCol);
+        final int aci = colorIndex(attackerCol);
+        if (kingPos < 0) {
+            // boards without that king exist in some tests, keep the distances to the non-existing king there
+            for (int pos = 0; pos < NR_SQUARES; pos++) {
+                int ring = distanceToKing(pos, kingCol);
+                if (ring < KING_ZONE_RINGS)
+                    sum[ring] += sign * squareAttacksValues[aci][pos];
+            }
+            return;
+        }
+        final int kci = colorIndex(kingCol);
+        if (kingZoneSumsKingPos[kci] != kingPos) {
+            // king has moved, sum up the rings around its new position
+            for (int ci = 0; ci <= 1; ci++)
+                for (int ring = 0; ring < KING_ZONE_RINGS; ring++) {
+                    int ringSum = 0;
+                    long mask = KING_ZONE_RING_MASKS[kingPos][ring];
+                    while (mask != 0L) {
+                        ringSum += squareAttacksValues[ci][Long.numberOfTrailingZeros(mask)];
+                        mask &= mask - 1;
+                    }
+                    kingZoneAttacksValues[kci][ci][ring] = ringSum;
+                }
+            kingZoneSumsKingPos[kci] = kingPos;
+        }
+        for (int ring = 0; ring < KING_ZONE_RINGS; ring++)
+            sum[ring] += sign * kingZoneAttacksValues[kci][aci][ring];
+    }
+
+    /**
+     * to be called by a square whenever its coverage changed: keeps the attacks values and the king zone sums
+     * up to date, see Square.getAttacksValueForColor()
+     */
+    void updateSquareAttacksValues(final int pos, final int whiteValue, final int blackValue) {
+        updateSquareAttacksValue(CIWHITE, pos, whiteValue);
+        updateSquareAttacksValue(CIBLACK, pos, blackValue);
+    }
+
+    private void updateSquareAttacksValue(final int ci, final int pos, final int value) {
+        final int delta = value - squareAttacksValues[ci][pos];
+        if (delta == 0)
+            return;
+        squareAttacksValues[ci][pos] = value;
+        for (int kci = 0; kci <= 1; kci++) {
+            final int kingPos = kingZoneSumsKingPos[kci];
+            if (kingPos < 0)
+                continue;
+            final int ring = distanceBetween(pos, kingPos);
+            if (ring < KING_ZONE_RINGS)
+                kingZoneAttacksValues[kci][ci][ring] += delta;
+        }
+    }
+
 
     /**
      * triggers distance calculation for all pieces, stepwise up to toLimit
@@ -755,8 +847,10 @@ public class ChessBoard {
             return;
         int ci = colorIndex(col);
         Arrays.fill( nrOfKingAreaAttacks[ci], 0);
-        for ( VirtualPieceOnSquare neighbour : boardSquares[kingPos].getvPiece(getKingId(col)).getNeighbours() ) {
-            Square nSq = boardSquares[neighbour.getMyPos()];
+        long kingArea = KING_ZONE_RING_MASKS[kingPos][1];
+        while (kingArea != 0L) {
+            Square nSq = boardSquares[Long.numberOfTrailingZeros(kingArea)];
+            kingArea &= kingArea - 1;
             nrOfKingAreaAttacks[ci][CIWHITE] += nSq.countDirectAttacksWithColor(WHITE)
                 + (nSq.extraCoverageOfKingPinnedPiece(WHITE) ? 1 : 0);
             nrOfKingAreaAttacks[ci][CIBLACK] += nSq.countDirectAttacksWithColor(BLACK)
@@ -775,8 +869,14 @@ public class ChessBoard {
                 continue;          // in some test-cases boards without kings are used, so skip this (instead of error/abort)
             List<ChessPiece> attackers = getBoardSquare(kingpos).directAttackersWithout2ndRowWithColor(opponentColor(col));
             for (ChessPiece a : attackers) {
-                for (int pos : a.allPosOnWayTo(kingpos))
-                    boardSquares[pos].setBlocksCheckFor(col);
+                // the checker itself and for sliding pieces the squares on the way to the king
+                long blockingPositions = RayAttacks.posBit(a.getPos());
+                if (isSlidingPieceType(a.getPieceType()))
+                    blockingPositions |= RayAttacks.betweenBitmap(a.getPos(), kingpos);
+                while (blockingPositions != 0L) {
+                    boardSquares[Long.numberOfTrailingZeros(blockingPositions)].setBlocksCheckFor(col);
+                    blockingPositions &= blockingPositions - 1;
+                }
             }
         }
     }
@@ -785,16 +885,23 @@ public class ChessBoard {
      * triggers all open distance calculation for all pieces
      */
     void completeCalc() {
+        long startTime = System.nanoTime();
         resetBestMoves();
 
         continueDistanceCalcUpTo(MAX_INTERESTING_NROF_HOPS);
+        buildPinMap();
+        attackIndex.build(boardSquares);
+        startTime = endPhase(BoardMetrics.Phase.DISTANCE_CALC, startTime);
 
         for (ChessPiece pce : piecesOnBoard)
             if (pce!=null) {
+                pce.indexVPcesByDistance();
                 pce.preparePredecessors();
+                startTime = endPhase(BoardMetrics.Phase.PREDECESSORS, startTime);
                 pce.evaluateMobility();
                 pce.rewardMovingOutOfTrouble();
                 pce.resetKingAreaAttacker();
+                startTime = endPhase(BoardMetrics.Phase.MOBILITY, startTime);
             }
         countKingAreaAttacks(WHITE);
         countKingAreaAttacks(BLACK);
@@ -806,29 +913,75 @@ public class ChessBoard {
         for (ChessPiece pce : piecesOnBoard)
             if (pce!=null)
                 pce.reduceToSingleContribution();
-        for (Square sq : boardSquares) {
-            sq.calcFutureClashEval();
-        }
-        for (Square sq : boardSquares) {
-            sq.calcExtraBenefits();
-        }
+        final boolean concurrently = parallelSquarePhases && !DEBUGMSG_MOVEEVAL;  // keep debug output readable
+        if (concurrently)
+            prepareConcurrentSquareEvals();
+        startTime = endPhase(BoardMetrics.Phase.CHECKS, startTime);
+        evalAllSquares(Square::calcFutureClashEval, concurrently);
+        startTime = endPhase(BoardMetrics.Phase.FUTURE_CLASHES, startTime);
+        evalAllSquares(Square::calcExtraBenefits, concurrently);
         for (ChessPiece pce : piecesOnBoard)
             if (pce != null) {
                 evalBeingTrappedOptions(pce);
                 // re-replaces by old method from .46u21, so for now no more: pce.giveLuftForKingInFutureBenefit();
             }
-        for (Square sq : boardSquares) {
-            sq.evalCheckingForks();
-        }
-        for (Square sq : boardSquares) {
-            sq.evalContribBlocking();
-        }
-        for (Square sq : boardSquares) {
-            sq.avoidForks();
-            sq.avoidRunningIntoForks();
-        }
+        startTime = endPhase(BoardMetrics.Phase.EXTRA_BENEFITS, startTime);
+        evalAllSquares(Square::evalCheckingForks, concurrently);
+        startTime = endPhase(BoardMetrics.Phase.FORKS, startTime);
+        // always sequential: reads the clash contributions, which the blocking benefits of this phase already change
+        evalAllSquares(Square::evalContribBlocking, false);
+        startTime = endPhase(BoardMetrics.Phase.BLOCKING, startTime);
+        evalAllSquares(sq -> {
+                    sq.avoidForks();
+                    sq.avoidRunningIntoForks();
+                }, concurrently);
+        startTime = endPhase(BoardMetrics.Phase.FORKS, startTime);
         motivateToEnableCastling(WHITE);
         motivateToEnableCastling(BLACK);
+        endPhase(BoardMetrics.Phase.EXTRA_BENEFITS, startTime);
+    }
+
+    /**
+     * runs squareEval for all squares in square order - or concurrently, but then the writes to the vPces are
+     * staged per square and applied in square order afterwards, so the result is the same.
+     * @param squareEval evaluation of one square that may only write via the ChanceBuffer-aware vPce methods
+     */
+    private void evalAllSquares(final Consumer<Square> squareEval, final boolean concurrently) {
+        if (!concurrently) {
+            for (Square sq : boardSquares)
+                squareEval.accept(sq);
+            return;
+        }
+        IntStream.range(0, NR_SQUARES).parallel().forEach(pos -> {
+            squareChanceBuffers[pos].activate();
+            try {
+                squareEval.accept(boardSquares[pos]);
+            } finally {
+                ChanceBuffer.deactivate();
+            }
+        });
+        for (ChanceBuffer buffer : squareChanceBuffers)
+            buffer.applyAndClear();
+    }
+
+    private void prepareConcurrentSquareEvals() {
+        if (squareChanceBuffers[0] == null)
+            for (int pos = 0; pos < NR_SQUARES; pos++)
+                squareChanceBuffers[pos] = new ChanceBuffer();
+        for (Square sq : boardSquares)
+            for (VirtualPieceOnSquare vPce : sq.getVPieces())
+                if (vPce != null)
+                    vPce.prepareConcurrentReads();
+    }
+
+    /**
+     * adds the time since startTime to the given phase in the board metrics
+     * @return the current time, to be used as start time of the next phase
+     */
+    private long endPhase(BoardMetrics.Phase phase, long startTime) {
+        final long now = System.nanoTime();
+        metrics.addPhaseTime(phase, now - startTime);
+        return now;
     }
 
     private void motivateToEnableCastling(boolean col) {
@@ -958,6 +1111,7 @@ public class ChessBoard {
             }
         }
         // finally, add the new piece at its place
+        occupiedBitmap |= RayAttacks.posBit(pos);
         boardSquares[pos].spawnPiece(newPceID);
         //updateHash
         return newPceID;
@@ -1259,6 +1413,7 @@ public class ChessBoard {
      * the actual calculation... includes checkAndEvaluateGameOver()
      */
     private void calcBestMove() {
+        final long startTime = System.nanoTime();
         final int lowest = (getTurnCol() ? WHITE_IS_CHECKMATE : BLACK_IS_CHECKMATE);
         int[] bestEvalSoFar = new int[MAX_INTERESTING_NROF_HOPS + 1];
         int[] bestOpponentEval = new int[MAX_INTERESTING_NROF_HOPS + 1];
@@ -1291,39 +1446,143 @@ public class ChessBoard {
         }
         bestMove = bestMovesSoFar.size()>0 ?bestMovesSoFar.get(0) : null;
         checkAndEvaluateGameOver();
+        endPhase(BoardMetrics.Phase.MOVE_SELECTION, startTime);
     }
 
     private List<EvaluatedMove> getBestMoveForColWhileAvoiding(final boolean col, final List<EvaluatedMove> bestOpponentMoves) {
         final int maxBestMoves = col==getTurnCol() ? 5 : 20;
-        List<EvaluatedMove> bestMoves = new ArrayList<>(maxBestMoves);
-        List<EvaluatedMove> restMoves = new ArrayList<>(maxBestMoves);
+        final BestMovesSelector selector = bestMovesSelectors[colorIndex(col)];
+        selector.clear(maxBestMoves);
+        oppMoveHindrances.build(bestOpponentMoves);
         nrOfLegalMoves[colorIndex(col)] = 0;
+        if (parallelMoveReevaluation && !DEBUGMSG_MOVESELECTION) {  // keep debug output readable
+            reevaluateMovesConcurrently(col, bestOpponentMoves, selector);
+            return selector.getTopMoves();
+        }
         for (ChessPiece p : piecesOnBoard) {
             if (p != null && p.color() == col) {
                 for (EvaluatedMove pEvMove : p.getBestEvaluatedMoves()) {
                     EvaluatedMove reevaluatedPEvMove = reevaluateMove(col, bestOpponentMoves, p, pEvMove);
                     if (reevaluatedPEvMove == null)
                         continue;
+                    nrOfLegalMoves[colorIndex(col)]++;  // well it's not really counting the truth, but more for more :-)
                     if (DEBUGMSG_MOVESELECTION)
                         debugPrintln(DEBUGMSG_MOVESELECTION, "  so my move reevaluates to " + reevaluatedPEvMove + ".");
-                    addEvaluatedMoveToSortedListOfCol(reevaluatedPEvMove, bestMoves, col, maxBestMoves, restMoves);
+                    selector.add(reevaluatedPEvMove);
                 }
             }
         }
-        // after the best moves run again with the rest of the moves - just to be sure to not overlook something
+        // after the best moves run again with the rest of the moves - just to be sure to not overlook something.
+        // But moves that cannot make it into the best moves even with the max gain the reevaluation could give them
+        // are not reevaluated.
+        final int gainBound0 = maxReevaluationGainAt0(col, bestOpponentMoves);
         for (ChessPiece p : piecesOnBoard) {
             if (p != null && p.color() == col) {
+                final int maxContrib = gainBound0 == NO_GAIN_BOUND ? NO_GAIN_BOUND
+                                                                   : maxLeftBehindContrib(p, bestOpponentMoves);
+                final int pGainBound0 = maxContrib == NO_GAIN_BOUND ? NO_GAIN_BOUND : gainBound0 + maxContrib;
                 for (EvaluatedMove pEvMove : p.getEvaluatedRestMoves()) {
+                    if (pEvMove != null && pGainBound0 != NO_GAIN_BOUND
+                            && selector.certainlyRejects(pEvMove.getEvalAt(0) + (isWhite(col) ? pGainBound0 : -pGainBound0))) {
+                        nrOfLegalMoves[colorIndex(col)]++;
+                        if (DEBUGMSG_MOVESELECTION)
+                            debugPrintln(DEBUGMSG_MOVESELECTION, "  skipping (rest)move " + pEvMove
+                                    + ", it cannot get better than the best moves by more than " + pGainBound0 + ".");
+                        continue;
+                    }
                     EvaluatedMove reevaluatedPEvMove = reevaluateMove(col, bestOpponentMoves, p, pEvMove);
                     if (reevaluatedPEvMove == null)
                         continue;
+                    nrOfLegalMoves[colorIndex(col)]++;
                     if (DEBUGMSG_MOVESELECTION)
                         debugPrintln(DEBUGMSG_MOVESELECTION, "  so my (rest)move reevaluates to " + reevaluatedPEvMove + ".");
-                    addEvaluatedMoveToSortedListOfCol(reevaluatedPEvMove, bestMoves, col, maxBestMoves, restMoves);
+                    selector.add(reevaluatedPEvMove);
                 }
             }
         }
-        return bestMoves;
+        return selector.getTopMoves();
+    }
+
+    /**
+     * the same as the two passes (best moves, then rest moves) of getBestMoveForColWhileAvoiding(), but all
+     * candidate moves are reevaluated concurrently. This only reads the board, each task writes only its own
+     * result slot. The results are then added to the selector in the order of the sequential passes, so the
+     * selected moves are the same.
+     */
+    private void reevaluateMovesConcurrently(final boolean col,
+                                             final List<EvaluatedMove> bestOpponentMoves,
+                                             final BestMovesSelector selector) {
+        final List<ChessPiece> movers = new ArrayList<>();
+        final List<EvaluatedMove> candidates = new ArrayList<>();
+        for (int pass = 0; pass <= 1; pass++)
+            for (ChessPiece p : piecesOnBoard)
+                if (p != null && p.color() == col)
+                    for (EvaluatedMove pEvMove : pass == 0 ? p.getBestEvaluatedMoves() : p.getEvaluatedRestMoves()) {
+                        movers.add(p);
+                        candidates.add(pEvMove);
+                    }
+        final EvaluatedMove[] results = new EvaluatedMove[candidates.size()];
+        IntStream.range(0, results.length).parallel().forEach(i ->
+                results[i] = reevaluateMove(col, bestOpponentMoves, movers.get(i), candidates.get(i)));
+        for (EvaluatedMove reevaluatedPEvMove : results) {
+            if (reevaluatedPEvMove == null)
+                continue;
+            nrOfLegalMoves[colorIndex(col)]++;
+            selector.add(reevaluatedPEvMove);
+        }
+    }
+
+    private static final int NO_GAIN_BOUND = Integer.MAX_VALUE;
+
+    /**
+     * upper bound of what reevaluateMove() can add (in favour of col) to eval[0] of any move of col, apart from
+     * the contribution the moving piece leaves behind (see maxLeftBehindContrib()):
+     * - the remaining best opponent move is only taken into account if it is ok for the opponent, i.e. not better
+     *   for col than EVAL_DELTAS_I_CARE_ABOUT,
+     * - if it is check giving, the next opponent move is added as well (about its full eval[0]),
+     * - the unavoidable next opponent move after my check is never in favour of col.
+     * @return the bound (>=0) or NO_GAIN_BOUND if the opponent might run out of moves, where the reevaluation
+     * changes the eval towards mate or draw, or if one of the opponent moves has a mate eval
+     */
+    private int maxReevaluationGainAt0(final boolean col, final List<EvaluatedMove> bestOpponentMoves) {
+        if (bestOpponentMoves == null)
+            return 0;  // nothing is changed then
+        if (nrOfLegalMoves(opponentColor(col)) <= bestOpponentMoves.size())
+            return NO_GAIN_BOUND;
+        boolean anyOppMoveIsCheckGiving = false;
+        int maxNextOppMoveEval0 = 0;
+        for (int i = 0; i < bestOpponentMoves.size(); i++) {
+            final EvaluatedMove oppMove = bestOpponentMoves.get(i);
+            if (oppMove == null)
+                continue;
+            if (isCheckmateEvalFor(oppMove.getEvalAt(0), WHITE) || isCheckmateEvalFor(oppMove.getEvalAt(0), BLACK))
+                return NO_GAIN_BOUND;  // mate threats are not bound by material gains
+            if (oppMove.isCheckGiving())
+                anyOppMoveIsCheckGiving = true;
+            if (i > 0)
+                maxNextOppMoveEval0 = max(maxNextOppMoveEval0, abs(oppMove.getEvalAt(0)));
+        }
+        return EVAL_DELTAS_I_CARE_ABOUT + (anyOppMoveIsCheckGiving ? maxNextOppMoveEval0 + 1 : 0);
+    }
+
+    /**
+     * @return max (absolute) clash contribution p has at one of the targets of the bestOpponentMoves, which
+     * reevaluateMove() takes away from p's moves, if p leaves the target uncovered. NO_GAIN_BOUND if one of them
+     * is out of the range of normal evaluations.
+     */
+    private int maxLeftBehindContrib(final ChessPiece p, final List<EvaluatedMove> bestOpponentMoves) {
+        if (bestOpponentMoves == null)
+            return 0;
+        int maxContrib = 0;
+        for (EvaluatedMove oppMove : bestOpponentMoves) {
+            if (oppMove == null)
+                continue;
+            final int contrib = getBoardSquare(oppMove.to()).getvPiece(p.getPieceID()).getClashContribOrZero();
+            if (isCheckmateEvalFor(contrib, WHITE) || isCheckmateEvalFor(contrib, BLACK))
+                return NO_GAIN_BOUND;
+            maxContrib = max(maxContrib, abs(contrib));
+        }
+        return maxContrib;
     }
 
     class BestOppMoveResult {
@@ -1336,7 +1595,6 @@ public class ChessBoard {
             return null;
         if (DEBUGMSG_MOVESELECTION)
             debugPrintln(DEBUGMSG_MOVESELECTION, "---- checking " + p + " with stayEval=" + p.staysEval() + " with move " + pEvMove + ": ");
-        nrOfLegalMoves[colorIndex(col)]++;  // well it's not really counting the truth, but more for more :-)
         ChessPiece beatenPiece = board.getPieceAt(pEvMove.to());
         Square toSq = board.getBoardSquare(pEvMove.to());
         int opponentMoveCorrection = 0;
@@ -1407,7 +1665,9 @@ public class ChessBoard {
                     // but this could lead to totally overestimated moves, e.g. moving unprotected Q next to k, just because all bestOppMoves are hindered (but there would be other moves, that are just do not part of the sub set of considered best moves)
             }
             else {  // it could be stalemate!
-                int deltaToDraw = -board.boardEvaluation(1);
+                // = -boardEvaluation(1), but without its checkAndEvaluateGameOver(), which would judge the game
+                // by the half counted nrOfLegalMoves and write gameOver from the concurrent reevaluations
+                int deltaToDraw = -board.evaluateAllPiecesBasicValueSum();
                 if (DEBUGMSG_MOVESELECTION)
                     debugPrintln(DEBUGMSG_MOVESELECTION, "  stalemateish move? " + reevaluatedPEvMove
                         + " changing eval half way towards " + deltaToDraw + ".");
@@ -1429,6 +1689,9 @@ public class ChessBoard {
         int oppMoveIndex = 0;
         if ( bestOpponentMoves != null ) {
             nrOfBestOpponentMoves = bestOpponentMoves.size();
+            // if pEvMove neither moves onto the way of any oppMove nor away from any oppMove's target, none of the
+            // oppMoves can be hindered by it, so the single hindrance checks below are not needed
+            final boolean pEvMoveMightHinder = oppMoveHindrances.mightHinderAny(pEvMove);
             if (DEBUGMSG_MOVESELECTION2)
                 debugPrintln(DEBUGMSG_MOVESELECTION2, " ##### looking for oppBestMove on: "+board.getBoardFEN()+" after "+pEvMove+":");
 
@@ -1437,6 +1700,11 @@ public class ChessBoard {
                 if (DEBUGMSG_MOVESELECTION2)
                     debugPrint(DEBUGMSG_MOVESELECTION2, " ##### analyzing: "+oppMove+":");
                 if (oppMove != null) {
+                    final long oppMoveBlockingMask = oppMoveHindrances.blockingMask(oppMoveIndex);
+                    final boolean pEvMoveReallyHinders = pEvMoveMightHinder
+                                                         && moveIsReallyHinderingMove(pEvMove, oppMove, oppMoveBlockingMask);
+                    final boolean pEvMoveMoreOrLessHinders = pEvMoveMightHinder
+                                                         && moveIsMoreOrLessHinderingMove(pEvMove, oppMove, oppMoveBlockingMask);
                     ChessPiece piecebeatenByOpponent = board.getPieceAt(oppMove.to());
                     ChessPiece oppPiece = board.getPieceAt(oppMove.from());
                     boolean omIsOk = evalIsOkForColByMin(oppMove.getEvalAt(0), opponentColor(col));
@@ -1451,7 +1719,7 @@ public class ChessBoard {
                                                            moveIsMoreOrLessHinderingMove(pEvMove,  //48h75c+<75
                                                                 new EvaluatedMove(oppMoveTargetVPce.getAbzugChecker().getMyPiecePos(),
                                                                 getKingPos(col)));
-                    if ( (  moveIsReallyHinderingMove(pEvMove, oppMove) //48h75
+                    if ( (  pEvMoveReallyHinders //48h75
                             //48h75c+<75 moveIsMoreOrLessHinderingMove(pEvMove, oppMove)
                             || ( moveIsCoveringMoveTarget(pEvMove, oppMove)
                                 && ( piecebeatenByOpponent == null   // Todo: be more precise with simulation of clash at oppMove.to with added defender
@@ -1462,7 +1730,7 @@ public class ChessBoard {
                         if (DEBUGMSG_MOVESELECTION)
                             debugPrintln(DEBUGMSG_MOVESELECTION, "  hindering opponents move "
                                     + oppMove
-                                    + ": hindering=" + moveIsMoreOrLessHinderingMove(pEvMove, oppMove)
+                                    + ": hindering=" + pEvMoveMoreOrLessHinders
                                     + "(" + evalEffectOfMovingAwayAgainst(pEvMove, oppMove) + ")"
                                     + ", hinders or no Abzugschach=" + pEvMoveHindersOrNoAbzugschach
                                     + " with AbzugChecker=" + (oppMoveTargetVPce.hasAbzugChecker() ? oppMoveTargetVPce.getAbzugChecker() : "null")
@@ -1497,7 +1765,7 @@ public class ChessBoard {
                         Square oppToSq = board.getBoardSquare(oppMove.to());
                         final boolean oppMoveIsRealChecker = oppMoveTargetVPce.isRealChecker();
                         final boolean oppMoveIsStillCheckGiving = ( oppMoveIsRealChecker
-                                                                    && !moveIsReallyHinderingMove(pEvMove, oppMove)  //48h75
+                                                                    && !pEvMoveReallyHinders  //48h75
                                                                     //48h75c+<75  && !moveIsMoreOrLessHinderingMove(pEvMove, oppMove)
                                                                     //TODO: check/correct: wrong if king runs into another square covered by the same oppMove (or the same Abzugschach)
                                                                     )
@@ -1564,8 +1832,8 @@ public class ChessBoard {
                         // first consider assumed effect on eval0 of moving out of the way
                         boolean changedDueToMovingAway = false;
                         // 48h75
-                        if ( moveIsMoreOrLessHinderingMove(pEvMove, oppMove)
-                                && !moveIsReallyHinderingMove(pEvMove, oppMove) ) {
+                        if ( pEvMoveMoreOrLessHinders
+                                && !pEvMoveReallyHinders ) {
                             debugPrint(DEBUGMSG_MOVESELECTION2, " (adding effect of "
                                     +evalEffectOfMovingAwayAgainst(pEvMove, oppMove)+" of moving out of the way) ");
                             corrOppMoveEval.addEval(evalEffectOfMovingAwayAgainst(pEvMove, oppMove), 0);
@@ -1737,6 +2005,7 @@ public class ChessBoard {
             if (!(colorlessPieceType(pceType) == PAWN && fileOf(topos) == enPassantFile))
                 return false;
         }
+        metrics.reset();  // metrics describe the work for the position after this move
         final int toposPceID = getPieceIdAt(topos);
         final int toposType = getPieceTypeAt(topos);
 
@@ -2015,16 +2284,30 @@ public class ChessBoard {
     }
 
     boolean allSquaresEmptyFromTo(final int fromPosExcl, final int toPosExcl) {
-        int dir = calcDirFromTo(fromPosExcl, toPosExcl);
-        if (dir==NONE)
+        if (calcDirFromTo(fromPosExcl, toPosExcl)==NONE)
             return false;
-        int p=fromPosExcl+dir;
-        while (p!=toPosExcl) {
-            if (!isSquareEmpty(p))
-                return false;
-            p += dir;
-        }
-        return true;
+        return (RayAttacks.betweenBitmap(fromPosExcl, toPosExcl) & occupiedBitmap) == 0;
+    }
+
+    /**
+     * counters and phase timings of the calculation of the current position (reset with every move)
+     */
+    public BoardMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return bitmap with one bit set for each occupied square (bit n for position n)
+     */
+    long getOccupiedBitmap() {
+        return occupiedBitmap;
+    }
+
+    /**
+     * @return the attack index of the current position - only valid after the distance calculation of completeCalc()
+     */
+    AttackIndex getAttackIndex() {
+        return attackIndex;
     }
 
     /**
@@ -2192,25 +2475,54 @@ public class ChessBoard {
         int sameColorKingPos = p.isWhite() ? whiteKingPos : blackKingPos;
         if (sameColorKingPos < 0)
             return true;  // king does not exist... should not happen, but is part of some test-positions
+        final int pPos = p.getPos();
+        if (pinMapClock == getUpdateClock()) {
+            // answer from the pin map of this position
+            if (!RayAttacks.isPosInBitmap(pPos, pinnedBitmap[colorIndex(p.color())]))
+                return true;
+            if (colorlessPieceType(p.getPieceType()) == KNIGHT)
+                return false;
+            return RayAttacks.isPosInBitmap(topos, pinRayMask[pPos]);
+        }
         if (!isPiecePinnedToPos(p, sameColorKingPos))
             return true;   // p is not king-pinned
         if (colorlessPieceType(p.getPieceType()) == KNIGHT)
             return false;  // a king-pinned knight can never move away in a way that it still avoids the check
         // or it is pinned, but does not move out of the way.
         int king2PceDir = calcDirFromTo(sameColorKingPos, topos);
-        int king2TargetDir = calcDirFromTo(sameColorKingPos, p.getPos());
+        int king2TargetDir = calcDirFromTo(sameColorKingPos, pPos);
         return king2PceDir == king2TargetDir;
         // TODO?:  could also be solved by more intelligent condition stored in the distance to the king
     }
 
 
     public boolean isPiecePinnedToPos(ChessPiece p,int pos){
-        int pPos = p.getPos();
-        List<Integer> listOfSquarePositionsCoveringPos = boardSquares[pos].getPositionsOfPiecesThatBlockWayAndAreOfColor(p.color());
-        for (Integer covpos : listOfSquarePositionsCoveringPos)
-            if (covpos == pPos)
-                return true;
-        return false;
+        return RayAttacks.isPosInBitmap(p.getPos(),
+                boardSquares[pos].getPiecesThatBlockWayAndAreOfColorBitmap(p.color()));
+    }
+
+    /**
+     * builds the pinned pieces per color and their pin ray masks, so moveIsNotBlockedByKingPin() does not need to
+     * look at the vPces of the king square any more, as long as the update clock does not move on.
+     * A pinned piece may move to the positions in its pin ray mask: those in the same direction from the king
+     * (if the piece is not on a line with its king: those on no line with the king).
+     */
+    private void buildPinMap() {
+        for (int ci = 0; ci <= 1; ci++) {
+            final boolean col = colorFromColorIndex(ci);
+            final int kingPos = getKingPos(col);
+            pinnedBitmap[ci] = kingPos < 0 ? 0L
+                                           : boardSquares[kingPos].getPiecesThatBlockWayAndAreOfColorBitmap(col);
+            long pinned = pinnedBitmap[ci];
+            while (pinned != 0L) {
+                final int pPos = Long.numberOfTrailingZeros(pinned);
+                pinned &= pinned - 1;
+                final int dir = calcDirFromTo(kingPos, pPos);
+                pinRayMask[pPos] = dir == NONE ? ~RayAttacks.slidingAttacks(QUEEN, kingPos, 0L)
+                                               : RayAttacks.ray(convertMainDir2DirIndex(dir), kingPos);
+            }
+        }
+        pinMapClock = getUpdateClock();
     }
 
     public boolean posIsBlockingCheck(boolean kingcol, int pos){
@@ -2269,6 +2581,7 @@ public class ChessBoard {
         piecesOnBoard[pceID].setPos(topos);
         // tell the square
         setCurrentDistanceCalcLimit(0);
+        occupiedBitmap |= RayAttacks.posBit(topos);
         boardSquares[topos].movePieceHereFrom(pceID, frompos);
         // tell all Pieces to update their vPieces (to recalc the distances)
         ChessPiece mover = piecesOnBoard[pceID];
@@ -2297,6 +2610,7 @@ public class ChessBoard {
     }
 
     private void emptySquare(final int frompos){
+        occupiedBitmap &= ~RayAttacks.posBit(frompos);
         boardSquares[frompos].emptySquare();
     }
 
@@ -2710,6 +3024,22 @@ $2    $3
         MAX_INTERESTING_NROF_HOPS = RECONST_MAX_INTERESTING_NROF_HOPS;
     }
 
+    public static boolean isParallelSquarePhases() {
+        return parallelSquarePhases;
+    }
+
+    public static void setParallelSquarePhases(boolean parallel) {
+        parallelSquarePhases = parallel;
+    }
+
+    public static boolean isParallelMoveReevaluation() {
+        return parallelMoveReevaluation;
+    }
+
+    public static void setParallelMoveReevaluation(boolean parallel) {
+        parallelMoveReevaluation = parallel;
+    }
+
     //void setTurn(boolean turn);
 
     /** "more or less", because moving away from the m2bBlocked-target is also considered hindering here.
@@ -2719,7 +3049,14 @@ $2    $3
      * @return
      */
     private boolean moveIsMoreOrLessHinderingMove(EvaluatedMove m, EvaluatedMove m2bBlocked) {
-        if (m.to() == m2bBlocked.from())
+        return moveIsMoreOrLessHinderingMove(m, m2bBlocked, HindranceMasks.blockingMask(m2bBlocked));
+    }
+
+    /** like moveIsMoreOrLessHinderingMove(m, m2bBlocked) with the already known blocking squares of m2bBlocked
+     * (see HindranceMasks).
+     */
+    private boolean moveIsMoreOrLessHinderingMove(EvaluatedMove m, EvaluatedMove m2bBlocked, long m2bBlockedBlockingMask) {
+        if (m.to() >= 0 && RayAttacks.isPosInBitmap(m.to(), m2bBlockedBlockingMask))  // m.to() == m2bBlocked.from() or in between
             return true;
         if (m.from() == m2bBlocked.to()
             && !( isPawn((getBoardSquare(m.from()).myPiece().getPieceType()) )  // pawn moving away does not protect the left behind square
@@ -2729,8 +3066,6 @@ $2    $3
             //todo: not really hindering, just reducing it's effect - but this cannot be returned for now. (this is one reason, why mate detection at move selection can not work for now
             //note: except for pawns trying to take a (here moving away) piece, which is never possible, so then true is always correct
         }
-        if (isBetweenFromAndTo(m.to(), m2bBlocked.from(), m2bBlocked.to()))
-            return true;
         return false;
     }
 
@@ -2742,15 +3077,20 @@ $2    $3
      * @return
      */
     private boolean moveIsReallyHinderingMove(EvaluatedMove m, EvaluatedMove m2bBlocked) {
-        if (m.to() == m2bBlocked.from())
+        return moveIsReallyHinderingMove(m, m2bBlocked, HindranceMasks.blockingMask(m2bBlocked));
+    }
+
+    /** like moveIsReallyHinderingMove(m, m2bBlocked) with the already known blocking squares of m2bBlocked
+     * (see HindranceMasks).
+     */
+    private boolean moveIsReallyHinderingMove(EvaluatedMove m, EvaluatedMove m2bBlocked, long m2bBlockedBlockingMask) {
+        if (m.to() >= 0 && RayAttacks.isPosInBitmap(m.to(), m2bBlockedBlockingMask))  // m.to() == m2bBlocked.from() or in between
             return true;
         if ( m.from() == m2bBlocked.to()
                 && isPawn((getBoardSquare(m2bBlocked.from()).myPiece().getPieceType()) )
                 && !isSquareEmpty(m2bBlocked.to()) ) {
             return true; // pawn tries to take, but target moves away, so m hinders the pawn move
         }
-        if (isBetweenFromAndTo(m.to(), m2bBlocked.from(), m2bBlocked.to()))
-            return true;
         return false;
     }
 
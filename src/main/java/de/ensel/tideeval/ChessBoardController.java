@@ -101,6 +101,12 @@ public class ChessBoardController implements ChessEngine {
                 + board.evaluateMaxClashes() + ", "
                 + board.boardEvaluation(4)
                 + " -> " + board.getBestMove() );
+        BoardMetrics metrics = board.getMetrics();
+        boardInfo.put("Propagations (total, per piece type: hops=count):", metrics.propagationsDescription());
+        boardInfo.put("Propagation que high-water mark (max, per hops):", metrics.queHighWaterMarksDescription());
+        boardInfo.put("vPce resets:", "" + metrics.getVPceResets());
+        boardInfo.put("Calculation phase times (ms):", metrics.phaseTimesDescription());
+        boardInfo.put("Clash result cache:", ClashResultCache.allThreadsDescription());
         return boardInfo;
     }
 
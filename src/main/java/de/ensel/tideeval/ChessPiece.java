@@ -26,7 +26,6 @@ import java.util.stream.Stream;
 
 import static de.ensel.chessbasics.ChessBasics.*;
 import static de.ensel.tideeval.ChessBoard.*;
-import static de.ensel.tideeval.EvaluatedMove.addEvaluatedMoveToSortedListOfCol;
 import static java.lang.Math.*;
 
 public class ChessPiece {
@@ -50,6 +49,7 @@ public class ChessPiece {
     private int bestRelEvalAt;  // bestRelEval found at dist==1 by moving to this position. ==NOWHERE if no move available
 
     static final int KEEP_MAX_BEST_MOVES = 4;
+    private BestMovesSelector bestMovesSelector;  // reused for every selectBestMove(), bestMoves and restMoves are its views
     List<EvaluatedMove> bestMoves;
     List<EvaluatedMove> restMoves;
 
@@ -57,6 +57,11 @@ public class ChessPiece {
     private EvaluatedMovesCollection soonLegalMovesAndChances;
     private boolean kingAreaAttacker;
 
+    // my vPces sorted by their raw distance, see indexVPcesByDistance(): those with dist()==d are at the indices
+    // vPcesByDistanceStart[d] .. vPcesByDistanceStart[d+1]-1, in position order
+    private final VirtualPieceOnSquare[] vPcesByDistance = new VirtualPieceOnSquare[NR_SQUARES];
+    private int[] vPcesByDistanceStart = new int[MAX_INTERESTING_NROF_HOPS + 2];
+
     ////
     ChessPiece(ChessBoard myChessBoard, int pceTypeNr, int pceID, int pcePos) {
         this.board = myChessBoard;
@@ -91,8 +96,13 @@ public class ChessPiece {
     }
 
     void resetBestMoves() {
-        bestMoves = new ArrayList<>(KEEP_MAX_BEST_MOVES);
-        restMoves = new ArrayList<>(KEEP_MAX_BEST_MOVES);
+        if (bestMovesSelector == null) {
+            bestMovesSelector = new BestMovesSelector(color(), KEEP_MAX_BEST_MOVES);
+            bestMoves = bestMovesSelector.getTopMoves();
+            restMoves = bestMovesSelector.getRestMoves();
+        }
+        else
+            bestMovesSelector.clear(KEEP_MAX_BEST_MOVES);
     }
 
     public int getValue() {
@@ -241,13 +251,43 @@ public class ChessPiece {
     }
 
 
+    /**
+     * sorts my vPces by their raw distance (counting sort, so within one distance they stay in position order).
+     * The following phases that run distance by distance (preparePredecessors(), evaluateMobility() and
+     * aggregateVPcesChancesAndCollectMoves()) then visit each vPce once, instead of all squares per distance.
+     * To be called when the distance calculation is complete, see ChessBoard.completeCalc().
+     */
+    void indexVPcesByDistance() {
+        final int maxDist = MAX_INTERESTING_NROF_HOPS;
+        if (vPcesByDistanceStart.length < maxDist + 2)
+            vPcesByDistanceStart = new int[maxDist + 2];
+        Arrays.fill(vPcesByDistanceStart, 0);
+        // count per distance, shifted by one, so the prefix sums below result in the start indices
+        for (Square sq : board.getBoardSquares()) {
+            final VirtualPieceOnSquare vPce = sq.getvPiece(myPceID);
+            if (vPce != null) {
+                final int d = vPce.getRawMinDistanceFromPiece().dist();
+                if (d >= 0 && d <= maxDist)
+                    vPcesByDistanceStart[d + 1]++;
+            }
+        }
+        for (int d = 1; d <= maxDist + 1; d++)
+            vPcesByDistanceStart[d] += vPcesByDistanceStart[d - 1];
+        final int[] next = Arrays.copyOf(vPcesByDistanceStart, maxDist + 1);
+        for (Square sq : board.getBoardSquares()) {
+            final VirtualPieceOnSquare vPce = sq.getvPiece(myPceID);
+            if (vPce != null) {
+                final int d = vPce.getRawMinDistanceFromPiece().dist();
+                if (d >= 0 && d <= maxDist)
+                    vPcesByDistance[next[d]++] = vPce;
+            }
+        }
+    }
+
     void preparePredecessors() {
         for (int d = 1; d <= board.MAX_INTERESTING_NROF_HOPS; d++) {
-            for (int p = 0; p < board.getBoardSquares().length; p++) {
-                VirtualPieceOnSquare vPce = board.getBoardSquare(p).getvPiece(myPceID);
-                if (vPce.getRawMinDistanceFromPiece().dist() == d)
-                    vPce.rememberAllPredecessors();
-            }
+            for (int i = vPcesByDistanceStart[d]; i < vPcesByDistanceStart[d + 1]; i++)
+                vPcesByDistance[i].rememberAllPredecessors();
         }
     }
 
@@ -266,10 +306,9 @@ public class ChessPiece {
         // break it down, closer and closer to piece
         int mobBase = 0;
         for (int d = board.MAX_INTERESTING_NROF_HOPS; d>0; d--) {
-            for (int p = 0; p < board.getBoardSquares().length; p++) {
-                VirtualPieceOnSquare vPce = board.getBoardSquare(p).getvPiece(myPceID);
-                if (vPce != null
-                        && vPce.getRawMinDistanceFromPiece().dist() == d
+            for (int i = vPcesByDistanceStart[d]; i < vPcesByDistanceStart[d + 1]; i++) {
+                VirtualPieceOnSquare vPce = vPcesByDistance[i];
+                final int p = vPce.getMyPos();
 // TEST in 48h54 and 54b - to be continued :-)
 //                ) {
 //                    boolean canReasonablyBeHere = evalIsOkForColByMin(vPce.getRelEvalOrZero(), vPce.color());
@@ -284,39 +323,34 @@ public class ChessPiece {
 //                        m = vPce.getMobility();
 //                    }
 //                    if ( d > 0 && canReasonablyBeHere ) {
-                ) {
-                    if (d == board.MAX_INTERESTING_NROF_HOPS) {
-                        vPce.addMobility( 1);   // same as 1<<(board.MAX_INTERESTING_NROF_HOPS-d) );
-                        vPce.addMobilityMap(1 << p);
-                    }
-                    int m = vPce.getMobility();
-                    //is always >0 :-) if (d>0) {
+                if (d == board.MAX_INTERESTING_NROF_HOPS) {
+                    vPce.addMobility( 1);   // same as 1<<(board.MAX_INTERESTING_NROF_HOPS-d) );
+                    vPce.addMobilityMap(1 << p);
+                }
+                int m = vPce.getMobility();
+                //is always >0 :-) if (d>0) {
 //
-                    /*if (board.hasPieceOfColorAt(vPce.color(), p))
-                        m -= m>>2;
-                    if (vPce.getMinDistanceFromPiece().hasNoGo())
-                        m -= m>>2;  // cannot be reached safely, so do not count so much. */
-                    for (VirtualPieceOnSquare predVPce : vPce.getShortestReasonableUnconditionedPredecessors()) {
-                        predVPce.addMobility((1 << (board.MAX_INTERESTING_NROF_HOPS - d))
-                                + /*(predVPce.isKillable() ? (m>>1) : m) */ m );
-                        predVPce.addMobilityMap(vPce.getMobilityMap());
-                    }
-                    //}
-                    if (d == 1 && m > mobBase)
-                        mobBase = m;
+                /*if (board.hasPieceOfColorAt(vPce.color(), p))
+                    m -= m>>2;
+                if (vPce.getMinDistanceFromPiece().hasNoGo())
+                    m -= m>>2;  // cannot be reached safely, so do not count so much. */
+                for (VirtualPieceOnSquare predVPce : vPce.getShortestReasonableUnconditionedPredecessors()) {
+                    predVPce.addMobility((1 << (board.MAX_INTERESTING_NROF_HOPS - d))
+                            + /*(predVPce.isKillable() ? (m>>1) : m) */ m );
+                    predVPce.addMobilityMap(vPce.getMobilityMap());
                 }
+                //}
+                if (d == 1 && m > mobBase)
+                    mobBase = m;
             }
         }
         // set matching chances
         //int mobBase = board.getBoardSquare(myPos).getvPiece(myPceID).getMobility();
         //mobBase >>= 1; // calculated max is not used for now, it makes score worse... probably, because baseline is different for every piece and thus, this takes away the differences
         mobBase = 0; // EVAL_TENTH-(EVAL_TENTH>>2);  // 8
-        for (int p = 0; p < board.getBoardSquares().length; p++) {
-            VirtualPieceOnSquare vPce = board.getBoardSquare(p).getvPiece(myPceID);
-            if (vPce!=null
-                    && vPce.getRawMinDistanceFromPiece().dist() == 1
-                    && !vPce.getMinDistanceFromPiece().hasNoGo()
-            ) {
+        for (int i = vPcesByDistanceStart[1]; i < vPcesByDistanceStart[2]; i++) {
+            VirtualPieceOnSquare vPce = vPcesByDistance[i];
+            if (!vPce.getMinDistanceFromPiece().hasNoGo()) {
                 //System.out.println("Mobility on d=" + d + " for " + this + " on " + squareName(p) + ": " + vPce.getMobility() + " / " + bitMapToString(vPce.getMobilityMap()) + ".");
                 int benefit =  (vPce.getMobility()-mobBase)>>2;
 
@@ -468,11 +502,9 @@ public class ChessPiece {
 //        final boolean iAmUpInPieces = evalIsOkForColByMin( board.boardEvaluation(1), color(), -(positivePieceBaseValue(KNIGHT)-EVAL_HALFAPAWN) ) ;
         for (int d = board.MAX_INTERESTING_NROF_HOPS; d>0; d--) {
             debugPrint(DEBUGMSG_MOVEEVAL_AGGREGATION, "d=" + d + ": ");
-            for (Square sq : board.getBoardSquares()) {
-                VirtualPieceOnSquare vPce = sq.getvPiece(myPceID);
-                if ( vPce==null // TODO: eliminate check, should not be necessary, i.e. null not possible
-                     || vPce.getRawMinDistanceFromPiece().hasNoGo()
-                     || vPce.getRawMinDistanceFromPiece().dist() != d )
+            for (int i = vPcesByDistanceStart[d]; i < vPcesByDistanceStart[d + 1]; i++) {
+                VirtualPieceOnSquare vPce = vPcesByDistance[i];
+                if ( vPce.getRawMinDistanceFromPiece().hasNoGo() )
                     continue;
 
                 if (d < board.MAX_INTERESTING_NROF_HOPS) {
@@ -681,8 +713,33 @@ public class ChessPiece {
         }
     }
 
+    private int queCallDepthLimit = -1;  // depth limit of the currently running continueDistanceCalc(), -1 if none runs
+
     void quePropagation(final int queIndex, final Runnable function) {
-        searchPropagationQues.get(Math.min(queIndex, QUE_MAX_DEPTH)).add(function);
+        final List<Runnable> que = searchPropagationQues.get(Math.min(queIndex, QUE_MAX_DEPTH));
+        que.add(function);
+        board.getMetrics().recordQueSize(queIndex, que.size());
+    }
+
+    /**
+     * tells if a propagation with que index queIndex would anyway be executed right now by the running
+     * continueDistanceCalc(), so it can be done directly instead of being qued.
+     * @param queIndex the que index (=priority) the propagation would get
+     * @return true if it is within the depth limit of the running calculation
+     */
+    boolean queIndexIsDueNow(final int queIndex) {
+        return queCallDepthLimit >= 0
+                && Math.min(queIndex, QUE_MAX_DEPTH) <= queCallDepthLimit;
+    }
+
+    /**
+     * counts one executed propagation, also those that are done directly instead of being qued
+     * (see queIndexIsDueNow()), so the metrics show the real work per hop level.
+     * @param queIndex the que index (=priority) the propagation had or would have had
+     */
+    void countPropagation(final int queIndex) {
+        debug_propagationCounter++;
+        board.getMetrics().countPropagation(myPceType, Math.min(queIndex, QUE_MAX_DEPTH));
     }
 
     /**
@@ -704,7 +761,7 @@ public class ChessPiece {
             searchPropagationQue = searchPropagationQues.get(i);
             if (searchPropagationQue != null && searchPropagationQue.size() > 0 ) {
                 //System.out.print(" (L"+i+")");
-                debug_propagationCounter++;
+                countPropagation(i);
                 searchPropagationQue.get(0).run();
                 searchPropagationQue.remove(0);
                 return true;  // end loop, we only work on one at a time.
@@ -723,6 +780,8 @@ public class ChessPiece {
 
     public boolean continueDistanceCalc(int depthlimit) {
         int n = 0;
+        final int prevQueCallDepthLimit = queCallDepthLimit;
+        queCallDepthLimit = depthlimit;
         startNextUpdate();
         /*if (getPieceID()==ChessBoard.DEBUGFOCUS_VP) {
             System.err.println("");
@@ -734,6 +793,7 @@ public class ChessPiece {
         }
         if (DEBUGMSG_DISTANCE_PROPAGATION && n>0)
             debugPrintln(DEBUGMSG_DISTANCE_PROPAGATION, " QueDone: " + n);
+        queCallDepthLimit = prevQueCallDepthLimit;
         endUpdate();
         return n>0;
     }
@@ -1199,6 +1259,7 @@ public class ChessPiece {
             keepMaxBestMoves <<= 1;
         else if (isSlidingPieceType(getPieceType()))
             keepMaxBestMoves += keepMaxBestMoves>>1;*/
+        bestMovesSelector.clear(keepMaxBestMoves);
         for (EvaluatedMove em : getLegalMovesAndChances()) {
             if ( isPawn(myPceType) && isPromotionRankForColor(em.to(), color())) {
                 // System.out.println("promotion!");
@@ -1232,7 +1293,7 @@ public class ChessPiece {
                         + "+" + board.getBoardSquare(getPos()).getvPiece(beatenPiece.myPceID).getClashContribOrZero()
                         : "."));
             }
-            addEvaluatedMoveToSortedListOfCol(em,bestMoves,color(), keepMaxBestMoves, restMoves);
+            bestMovesSelector.add(em);
         }
 
         // a bit of a hack here, to add a never evaluated castling move... just assuming the evaluation 75 + the rook move + the king move
@@ -1268,7 +1329,7 @@ public class ChessPiece {
                     if (DEBUGMSG_MOVESELECTION)
                         debugPrintln(DEBUGMSG_MOVESELECTION, "  Hurray, castling is possible! " + castlingMove + ".");
                     castlingMove.setBasicallyLegal();
-                    addEvaluatedMoveToSortedListOfCol(castlingMove, bestMoves, color(), keepMaxBestMoves, restMoves);
+                    bestMovesSelector.add(castlingMove);
                 }
                 else
                     board.internalErrorPrintln("Castling problem: No Rook move?.");
@@ -1277,7 +1338,7 @@ public class ChessPiece {
             //    board.internalErrorPrintln("Castling problem: No Rook?");
         }
 
-        return bestMoves.size() + restMoves.size();
+        return bestMovesSelector.size();
     }
 
 
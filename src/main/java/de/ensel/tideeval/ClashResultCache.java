@@ -0,0 +1,230 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static de.ensel.chessbasics.ChessBasics.*;
+
+/**
+ * Bounded LRU cache of direct clash results. A clash between directly covering pieces only depends on the value
+ * of the piece on the square, the ordered values of the attackers/defenders of both sides, who starts, and if
+ * a king is involved (incl. the extra coverage by king-pinned pieces). So the same exchange pattern can be
+ * reused across squares, plies and games.
+ * Usage: startKey(), then addAttacker() for all whites, nextSide(), addAttacker() for all blacks, then
+ * lookup() and - if NOT_CACHED - store() the calculated result.
+ * The cache is not thread safe, every thread gets its own via forCurrentThread(). With the parallel square phases
+ * (see ChessBoard.setParallelSquarePhases()) this means one cache per ForkJoin common pool worker, each filling up
+ * to DEFAULT_CAPACITY entries (roughly 2-3 MB) and kept as long as the worker thread lives.
+ * allThreadsDescription() sums up the statistics of all these caches.
+ */
+final class ClashResultCache {
+    static final int NOT_CACHED = Integer.MIN_VALUE;
+    static final int DEFAULT_CAPACITY = 16384;
+
+    private static final ThreadLocal<ClashResultCache> CACHE_PER_THREAD
+            = ThreadLocal.withInitial(() -> register(new ClashResultCache(DEFAULT_CAPACITY)));
+    // all caches of the threads, weak so that the cache of an ended thread is not kept alive just for the statistics
+    private static final List<WeakReference<ClashResultCache>> ALL_CACHES = new ArrayList<>();
+
+    private final LinkedHashMap<ClashSignature, Integer> results;
+    private final ClashSignature probe = new ClashSignature(new int[2 * MAX_PIECES + 8], 0);
+    private long lookups;
+    private long hits;
+
+    ClashResultCache(final int capacity) {
+        results = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ClashSignature, Integer> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    static ClashResultCache forCurrentThread() {
+        return CACHE_PER_THREAD.get();
+    }
+
+    private static ClashResultCache register(final ClashResultCache cache) {
+        synchronized (ALL_CACHES) {
+            ALL_CACHES.add(new WeakReference<>(cache));
+        }
+        return cache;
+    }
+
+    /**
+     * sums up the statistics of the caches of all (still living) threads. The counters of other threads are
+     * read without synchronisation, so it is only exact when no calculation is running.
+     * @return {nr of caches, entries, hits, lookups}
+     */
+    private static long[] allThreadsStatistics() {
+        final long[] sums = new long[4];
+        synchronized (ALL_CACHES) {
+            for (Iterator<WeakReference<ClashResultCache>> it = ALL_CACHES.iterator(); it.hasNext(); ) {
+                final ClashResultCache cache = it.next().get();
+                if (cache == null) {
+                    it.remove();
+                    continue;
+                }
+                sums[0]++;
+                sums[1] += cache.size();
+                sums[2] += cache.hits;
+                sums[3] += cache.lookups;
+            }
+        }
+        return sums;
+    }
+
+    static long getAllThreadsLookups() {
+        return allThreadsStatistics()[3];
+    }
+
+    static String allThreadsDescription() {
+        final long[] sums = allThreadsStatistics();
+        return sums[0] + " caches (one per thread) have " + sums[1] + " Entries and resulted in "
+                + sums[2] + " hits (of " + sums[3] + " lookups).";
+    }
+
+    void startKey(final boolean turn, final int valueOnSquare,
+                  final boolean extraKingPinCoverageWhite, final boolean extraKingPinCoverageBlack) {
+        probe.len = 0;
+        probe.data[probe.len++] = (isWhite(turn) ? 1 : 0)
+                | (extraKingPinCoverageWhite ? 2 : 0)
+                | (extraKingPinCoverageBlack ? 4 : 0);
+        probe.data[probe.len++] = valueOnSquare;
+    }
+
+    void addAttacker(final VirtualPieceOnSquare vPce) {
+        probe.data[probe.len++] = (vPce.getValue() << 1) | (isKing(vPce.getPieceType()) ? 1 : 0);
+    }
+
+    /**
+     * adds the vPces from the range, but skips excluded ones
+     * @return false if an excluded vPce appears more than once - then the clash cannot be cached
+     */
+    boolean addAttackers(final VirtualPieceOnSquare[] vPces, final int from, final int to,
+                         final VirtualPieceOnSquare exclude) {
+        boolean excludedFound = false;
+        for (int i = from; i < to; i++) {
+            if (vPces[i] == exclude) {
+                if (excludedFound)
+                    return false;
+                excludedFound = true;
+            }
+            else
+                addAttacker(vPces[i]);
+        }
+        return true;
+    }
+
+    boolean addAttackers(final List<VirtualPieceOnSquare> vPces, final VirtualPieceOnSquare exclude) {
+        boolean excludedFound = false;
+        for (int i = 0; i < vPces.size(); i++) {
+            VirtualPieceOnSquare vPce = vPces.get(i);
+            if (vPce == exclude) {
+                if (excludedFound)
+                    return false;
+                excludedFound = true;
+            }
+            else
+                addAttacker(vPce);
+        }
+        return true;
+    }
+
+    void nextSide() {
+        probe.data[probe.len++] = Integer.MAX_VALUE;   // separator, not a possible (shifted) value
+    }
+
+    /**
+     * @return the cached clash result for the current key or NOT_CACHED
+     */
+    int lookup() {
+        lookups++;
+        probe.rehash();
+        Integer result = results.get(probe);
+        if (result == null)
+            return NOT_CACHED;
+        hits++;
+        return result;
+    }
+
+    void store(final int result) {
+        results.put(new ClashSignature(Arrays.copyOf(probe.data, probe.len), probe.len), result);
+    }
+
+    int size() {
+        return results.size();
+    }
+
+    long getLookups() {
+        return lookups;
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    @Override
+    public String toString() {
+        return "Cache has " + size() + " Entries and resulted in " + hits + " hits (of " + lookups + " lookups).";
+    }
+
+
+    private static final class ClashSignature {
+        private final int[] data;
+        private int len;
+        private int hash;
+
+        ClashSignature(final int[] data, final int len) {
+            this.data = data;
+            this.len = len;
+            rehash();
+        }
+
+        void rehash() {
+            int h = 1;
+            for (int i = 0; i < len; i++)
+                h = 31 * h + data[i];
+            hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof ClashSignature))
+                return false;
+            ClashSignature other = (ClashSignature) o;
+            return hash == other.hash
+                    && Arrays.equals(data, 0, len, other.data, 0, other.len);
+        }
+    }
+}
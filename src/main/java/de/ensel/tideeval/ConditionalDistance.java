@@ -422,10 +422,16 @@ public class ConditionalDistance {
 
 
     public MoveCondition matches(final Move m) {
-        for( MoveCondition c : conds )
-            if ( (c.from() == ANYWHERE || m.from()==c.from())
-                    && (c.to() == ANYWHERE || m.to()==c.to()) )
+        return matches(m.from(), m.to());
+    }
+
+    private MoveCondition matches(final int from, final int to) {
+        for (int i = 0; i < conds.size(); i++) {
+            MoveCondition c = conds.get(i);
+            if ( (c.from() == ANYWHERE || from==c.from())
+                    && (c.to() == ANYWHERE || to==c.to()) )
                 return c;
+        }
         return null;
     }
 
@@ -457,6 +463,55 @@ public class ConditionalDistance {
         // TODO: rethink if conditional distance should really count other (own) moves, this makes this method much mor complicated...
     }
 
+    /**
+     * same as movesFulfillConditions(List<Move>), but for nrOfMoves moves movesFrom[i]->toPos,
+     * given as plain positions, so no Move objects are needed.
+     */
+    public int movesFulfillConditions(final int[] movesFrom, final int nrOfMoves, final int toPos) {
+        if (nrOfConditions()==0)
+            return 0;
+        long openConds = (1L << conds.size()) - 1;   // bit i set: conds.get(i) is not matched, yet
+        for (int i = 0; i < nrOfMoves; i++) {
+            openConds = takeOutMatchingCond(openConds, movesFrom[i], toPos);
+            if (openConds == 0)  // it was the last match - now all conditions are matched
+                return i+1;
+        }
+        // we are through the list of moves, but unfulfilled conditions remain.
+        return -Long.bitCount(openConds);
+    }
+
+    /**
+     * same as movesFulfillConditions(List<Move>), but for the packed moves of a MoveList
+     */
+    public int movesFulfillConditions(final MoveList moves) {
+        if (nrOfConditions()==0)
+            return 0;
+        long openConds = (1L << conds.size()) - 1;   // bit i set: conds.get(i) is not matched, yet
+        for (int i = 0; i < moves.size(); i++) {
+            openConds = takeOutMatchingCond(openConds, moves.from(i), moves.to(i));
+            if (openConds == 0)  // it was the last match - now all conditions are matched
+                return i+1;
+        }
+        // we are through the list of moves, but unfulfilled conditions remain.
+        return -Long.bitCount(openConds);
+    }
+
+    /**
+     * if the move from->to matches a condition, the first still open condition that equals the match is
+     * taken out (like List.remove() does)
+     * @return openConds without that condition
+     */
+    private long takeOutMatchingCond(long openConds, final int from, final int to) {
+        MoveCondition cm = matches(from, to);
+        if (cm != null) {
+            for (int c = 0; c < conds.size(); c++) {
+                if ((openConds & (1L << c)) != 0 && conds.get(c).equals(cm))
+                    return openConds & ~(1L << c);
+            }
+        }
+        return openConds;
+    }
+
     public boolean piecesMovesMayFulfillAllFromConds(List<VirtualPieceOnSquare> whites, List<VirtualPieceOnSquare> blacks) {
         if (nrOfConditions()==0)
             return true;
@@ -19,45 +19,66 @@
 package de.ensel.tideeval;
 
 import java.util.AbstractCollection;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.NoSuchElementException;
 
 import static de.ensel.chessbasics.ChessBasics.ANYWHERE;
+import static de.ensel.chessbasics.ChessBasics.NR_SQUARES;
+import static de.ensel.tideeval.Evaluation.MAX_EVALDEPTH;
 
 
 public class EvalPerTargetAggregation extends AbstractCollection<Evaluation> {
     /**
-     * K: target, E: Evaluation if myPiece continues to or covers target.
+     * Evaluation per target, if myPiece continues to or covers target. Stores real moves (i.e. d==1) and the
+     * chances they have on certain future-levels (like the Array of relEvals within Evaluation).
+     * The evaluations are not stored as Evaluation objects, but as rows of MAX_EVALDEPTH ints, one after the other
+     * in the one array rows (struct of arrays), so aggregating, maxing and time warping run as simple loops
+     * over this array (see the row operations in Evaluation).
+     * Targets are board positions 0..63 (or ANYWHERE), so they are not hashed: bit n of posTargets tells that there
+     * is a row for position n, which then is the (nr of lower bits set in posTargets)-th row. The rows of the
+     * other targets (ANYWHERE, others are not expected) follow after all position rows, their targets are kept in
+     * extraTargets.
+     * As the rows are values, nothing is shared: aggregateIn() copies the rows of the other aggregation, and
+     * iterator(), getEvMove() and filterTarget() hand out copies - changes to these do not change the aggregation.
      */
-    private HashMap<Integer, Evaluation> evalPerTarget;   // stores real moves (i.e. d==1) and the chances they have
-            // on certain future-levels (thus the Array of relEvals within Evaluation)
+    private static final int ROW_LEN = MAX_EVALDEPTH;
+
+    private long posTargets = 0L;
+    private int[] rows = null;            // allocated with the first target
+    private int nrOfRows = 0;
+    private int[] extraTargets = null;    // targets of the rows after the position rows
+    private int nrOfExtraTargets = 0;
 
     private final boolean color;  // color is needed to know how to aggregate move evaluations (board perspective:
                                   // where larger numbers are better for white, smaller is better for black)
 
-    private Evaluation aggregatedEval = null;  // this is calculated as the sum of all perTarget Entries. It is cached once calculated in the getter, but reset with every change
+    private final Evaluation aggregatedEval;  // the sum of all perTarget Entries. It is kept up to date with every change
 
     //// Constructor
 
     public EvalPerTargetAggregation(boolean color) {
-        this.evalPerTarget = new HashMap<>(8);
         this.color = color;
+        this.aggregatedEval = new Evaluation(ANYWHERE);
     }
 
     public EvalPerTargetAggregation(EvalPerTargetAggregation o) {
-        this.evalPerTarget = new HashMap<>(8);
-        for (Map.Entry<Integer, Evaluation> e : o.evalPerTarget.entrySet()) {
-            evalPerTarget.put(e.getKey(), new Evaluation(e.getValue()) );  // copy values
-        }
         this.color = o.color;
+        this.aggregatedEval = new Evaluation(o.aggregatedEval);
+        this.posTargets = o.posTargets;
+        this.nrOfRows = o.nrOfRows;
+        if (o.rows != null)
+            this.rows = Arrays.copyOf(o.rows, o.rows.length);  // copy values
+        this.nrOfExtraTargets = o.nrOfExtraTargets;
+        if (o.extraTargets != null)
+            this.extraTargets = Arrays.copyOf(o.extraTargets, o.extraTargets.length);
     }
 
     public EvalPerTargetAggregation(int target, Evaluation eval, boolean color) {
-        this.evalPerTarget = new HashMap<>(8);
-        if (eval != null)
-            evalPerTarget.put(target, new Evaluation(eval) );  // copy values
         this.color = color;
+        this.aggregatedEval = new Evaluation(ANYWHERE);
+        if (eval != null)
+            add(eval, target);  // copies values
     }
 
 
@@ -68,9 +89,7 @@ public class EvalPerTargetAggregation extends AbstractCollection<Evaluation> {
         if (eval==null)
             return false;
         int origSize = this.size();
-        Evaluation existingEval = getOrAddEvalForTarget(target);
-        existingEval.maxEvalPerFutureLevelFor(eval, color());
-        aggregatedEval = null;
+        maxInto(getOrAddRowForTarget(target), eval.rawEvalRow(), 0);
         return origSize != this.size();
     }
 
@@ -88,22 +107,32 @@ public class EvalPerTargetAggregation extends AbstractCollection<Evaluation> {
         if (eval==null)
             return false;
         final int origSize = this.size();
-        getOrAddEvalForTarget(target)
-                .addEval(eval);
-        aggregatedEval = null;
+        final int rowOffset = getOrAddRowForTarget(target);   // (might reallocate rows)
+        Evaluation.addRow(rows, rowOffset, eval.rawEvalRow(), 0);
+        Evaluation.addRow(aggregatedEval.rawEvalRow(), 0, eval.rawEvalRow(), 0);
         return origSize != this.size();
     }
 
     public boolean add(final int benefit, final int futureLevel, final int target) {
         final int origSize = this.size();
-        getOrAddEvalForTarget(target)
-                .addEval(benefit, futureLevel);
-        aggregatedEval = null;
+        final int rowOffset = getOrAddRowForTarget(target);   // (might reallocate rows)
+        rows[rowOffset + futureLevel] += benefit;
+        aggregatedEval.addEval(benefit, futureLevel);
         return origSize != this.size();
     }
 
+    /**
+     * maxes my row at rowOffset with the row at mOff in mRaw and corrects the aggregatedEval by the difference
+     */
+    private void maxInto(final int rowOffset, final int[] mRaw, final int mOff) {
+        final int[] aggregated = aggregatedEval.rawEvalRow();
+        Evaluation.subtractRow(aggregated, 0, rows, rowOffset);
+        Evaluation.maxRowPerFutureLevelFor(rows, rowOffset, mRaw, mOff, color());
+        Evaluation.addRow(aggregated, 0, rows, rowOffset);
+    }
+
     /** aggregates another aggregation of evaluations into this one.
-     * New targets are just taken over, same targets are maxed with existing one.
+     * New targets are just taken over (copied), same targets are maxed with existing one.
      * @param moreChances
      */
     public void aggregateIn(final EvalPerTargetAggregation moreChances) {
@@ -111,47 +140,84 @@ public class EvalPerTargetAggregation extends AbstractCollection<Evaluation> {
     }
 
     public void aggregateIn(final EvalPerTargetAggregation moreChances, boolean quarterOfPositivesOnly) {
-        if (moreChances==null)
+        if (moreChances==null || moreChances.nrOfRows == 0)
             return;
-        for (Map.Entry<Integer, Evaluation> e : moreChances.evalPerTarget.entrySet()) {
-            Evaluation existingEval = evalPerTarget.get(e.getKey());
-            Evaluation eval = e.getValue();
-            if (quarterOfPositivesOnly) {
-                if (eval.isGoodForColor(color()))
-                    eval = new Evaluation(eval).devideBy(4);
-                else
-                    eval = null;
-            }
-            if (eval != null ) {
-                if (existingEval == null) {
-                    // not found -> this is a new Evaluation
-                    evalPerTarget.put(e.getKey(), eval);
-                } else {
-                    // same target, lat's take max
-                    existingEval.maxEvalPerFutureLevelFor(eval, color());
-                    // TODO!!! - needed to fix "swallowed" negative benfits=fees by max
-                    // e.g. in "1r1qr1k1/2p1b2p/p1b2p2/1p1n1QpR/3P4/1B4NP/PP3PP1/R1B3K1 b - - 1 20, e7d6|a6a5"  // NOT e8f8 which makes it mateIn1
-                    //  existingEval.incEvaltoMaxOrDecreaseFor(e.getValue(), color());  // 48h44p
-                }
-            }
+        final int[] quarter = quarterOfPositivesOnly ? new int[ROW_LEN] : null;
+        int row = 0;
+        for (long targets = moreChances.posTargets; targets != 0L; targets &= targets - 1)
+            aggregateInRow(Long.numberOfTrailingZeros(targets), moreChances.rows, ROW_LEN * row++, quarter);
+        for (int i = 0; i < moreChances.nrOfExtraTargets; i++)
+            aggregateInRow(moreChances.extraTargets[i], moreChances.rows, ROW_LEN * row++, quarter);
+    }
+
+    /**
+     * @param quarter null to take the row as it is, otherwise only positive rows are taken and only a quarter
+     *                of them - quarter is then used as buffer for that.
+     */
+    private void aggregateInRow(final int target, int[] mRaw, int mOff, final int[] quarter) {
+        if (quarter != null) {
+            if (!Evaluation.isGoodForColor(color(), mRaw, mOff))
+                return;
+            for (int i = 0; i < ROW_LEN; i++)
+                quarter[i] = mRaw[mOff + i] >> 2;   // like Evaluation.devideBy(4)
+            mRaw = quarter;
+            mOff = 0;
+        }
+        final int existingRow = rowOffsetOf(target);
+        if (existingRow < 0) {
+            // not found -> this is a new target, its values are copied
+            final int newRow = addRowForTarget(target);
+            System.arraycopy(mRaw, mOff, rows, newRow, ROW_LEN);
+            Evaluation.addRow(aggregatedEval.rawEvalRow(), 0, mRaw, mOff);
+        } else {
+            // same target, lat's take max
+            maxInto(existingRow, mRaw, mOff);
+            // TODO!!! - needed to fix "swallowed" negative benfits=fees by max
+            // e.g. in "1r1qr1k1/2p1b2p/p1b2p2/1p1n1QpR/3P4/1B4NP/PP3PP1/R1B3K1 b - - 1 20, e7d6|a6a5"  // NOT e8f8 which makes it mateIn1
+            //  existingEval.incEvaltoMaxOrDecreaseFor(e.getValue(), color());  // 48h44p
         }
     }
 
     public void timeWarp(int futureLevelDelta) {
-        for (Map.Entry<Integer, Evaluation> e : evalPerTarget.entrySet()) {
-            e.getValue().timeWarp(futureLevelDelta);
-        }
+        for (int row = 0; row < nrOfRows; row++)
+            Evaluation.timeWarpRow(rows, ROW_LEN * row, futureLevelDelta);
+        aggregatedEval.timeWarp(futureLevelDelta);  // warping is linear, so the sum can just be warped as well
     }
 
 
+    /**
+     * iterates (copies of) the evaluations of position targets in ascending order, then of the other targets
+     */
     @Override
     public Iterator<Evaluation> iterator() {
-        return evalPerTarget.values().iterator();
+        return new Iterator<>() {
+            private long remainingPosTargets = posTargets;
+            private int row = 0;
+
+            @Override
+            public boolean hasNext() {
+                return row < nrOfRows;
+            }
+
+            @Override
+            public Evaluation next() {
+                if (row >= nrOfRows)
+                    throw new NoSuchElementException();
+                final int target;
+                if (remainingPosTargets != 0L) {
+                    target = Long.numberOfTrailingZeros(remainingPosTargets);
+                    remainingPosTargets &= remainingPosTargets - 1;
+                }
+                else
+                    target = extraTargets[row - Long.bitCount(posTargets)];
+                return evaluationOfRow(target, ROW_LEN * row++);
+            }
+        };
     }
 
     @Override
     public int size() {
-        return evalPerTarget.size();
+        return nrOfRows;
     }
 
 
@@ -164,44 +230,92 @@ public class EvalPerTargetAggregation extends AbstractCollection<Evaluation> {
     /**
      * get the one Evaluation that matches the target (=discriminator)
      * @param target - same value used to store the value
-     * @return the one (single or aggregated) Evaluation
+     * @return a copy of the one (single or aggregated) Evaluation
      */
     Evaluation getEvMove(int target) {
-        return evalPerTarget.get(target);
+        final int rowOffset = rowOffsetOf(target);
+        return rowOffset < 0 ? null : evaluationOfRow(target, rowOffset);
     }
 
 
-    ////
+    //// row storage
+
+    private Evaluation evaluationOfRow(final int target, final int rowOffset) {
+        Evaluation eval = new Evaluation(target);
+        System.arraycopy(rows, rowOffset, eval.rawEvalRow(), 0, ROW_LEN);
+        return eval;
+    }
+
+    private static boolean isPosTarget(final int target) {
+        return target >= 0 && target < NR_SQUARES;
+    }
+
+    /**
+     * @return offset of the row of target in rows or -1 if there is none
+     */
+    private int rowOffsetOf(final int target) {
+        if (isPosTarget(target)) {
+            final long bit = 1L << target;
+            if ((posTargets & bit) == 0L)
+                return -1;
+            return ROW_LEN * Long.bitCount(posTargets & (bit - 1));
+        }
+        for (int i = 0; i < nrOfExtraTargets; i++)
+            if (extraTargets[i] == target)
+                return ROW_LEN * (Long.bitCount(posTargets) + i);
+        return -1;
+    }
+
+    /**
+     * adds an all 0 row for target, which must not have a row yet
+     * @return its offset in rows
+     */
+    private int addRowForTarget(final int target) {
+        if (rows == null)
+            rows = new int[4 * ROW_LEN];
+        else if (ROW_LEN * (nrOfRows + 1) > rows.length)
+            rows = Arrays.copyOf(rows, rows.length << 1);
+        final int rowOffset;
+        if (isPosTarget(target)) {
+            final long bit = 1L << target;
+            rowOffset = ROW_LEN * Long.bitCount(posTargets & (bit - 1));
+            // move all rows after it (incl. the extra rows) one row further
+            System.arraycopy(rows, rowOffset, rows, rowOffset + ROW_LEN, ROW_LEN * nrOfRows - rowOffset);
+            Arrays.fill(rows, rowOffset, rowOffset + ROW_LEN, 0);
+            posTargets |= bit;
+        }
+        else {
+            if (extraTargets == null)
+                extraTargets = new int[2];
+            else if (nrOfExtraTargets == extraTargets.length)
+                extraTargets = Arrays.copyOf(extraTargets, nrOfExtraTargets << 1);
+            extraTargets[nrOfExtraTargets++] = target;
+            rowOffset = ROW_LEN * nrOfRows;   // the rows array is all 0 behind the used rows
+        }
+        nrOfRows++;
+        return rowOffset;
+    }
 
     /**
-     * picks the Evaluation for a target. If it does not exist, it makes a new one (all 0 eval) and returns this.
+     * picks the row for a target. If it does not exist, it makes a new one (all 0 eval).
      *
      * @param target - the already existing or new target discriminator
-     * @return an Evaluation - always exists, is never null,  but may be fresh (an all 0 evaluation)
+     * @return offset of the row in rows
      */
-    private Evaluation getOrAddEvalForTarget(int target) {
-        Evaluation existingEval = evalPerTarget.get(target);
-        if ( existingEval == null ) {
-            // not found -> this is a new Evaluation
-            Evaluation newEval = new Evaluation(target);
-            evalPerTarget.put(target, newEval);
-            return newEval;
-        }
-        return existingEval;
+    private int getOrAddRowForTarget(int target) {
+        final int rowOffset = rowOffsetOf(target);
+        if ( rowOffset < 0 )
+            return addRowForTarget(target);
+        return rowOffset;
     }
 
     /**
      * smurf all evaluations (for all targets) together to one
-     * @return one single evaluation, aggregating (actually just adding) all internally stored ones
+     * @return one single evaluation, aggregating (actually just adding) all internally stored ones. It is kept up
+     * to date incrementally with every change, so it is not copied here: callers must not change it and need to
+     * copy it if they want to keep it.
      */
     public Evaluation getAggregatedEval() {
-        if ( aggregatedEval != null ) {
-            return aggregatedEval;
-        }
-        aggregatedEval = new Evaluation(ANYWHERE);
-        for (Evaluation ev : this) {
-            aggregatedEval.addEval(ev);
-        }
         return aggregatedEval;
     }
 
@@ -211,6 +325,6 @@ public class EvalPerTargetAggregation extends AbstractCollection<Evaluation> {
      * @return new, similar but filtered EvalPerTargetAggregation
      */
     public EvalPerTargetAggregation filterTarget(final int fTarget) {
-        return new EvalPerTargetAggregation(fTarget, evalPerTarget.get(fTarget), color());
+        return new EvalPerTargetAggregation(fTarget, getEvMove(fTarget), color());
     }
-}
\ No newline at end of file
+}
@@ -122,44 +122,6 @@ public class EvaluatedMove extends Move {
     }
 
 
-    /**
-     * See if evMove is among the best, i.e. best or max maxTopEntries-st best, in the list sortedTopMoves.
-     * If yes it is put there, else into restMoves. If sortedTopMoves grows too large, the too many lower ones are also moved to restMoves.
-     * @param evMove move to be sorted in
-     * @param sortedTopMoves top moves so far. sortedTopMoves needs to be sorted from the beginning (or empty).
-     * @param color to determine which evaluations are better (higher or lower)
-     * @param maxTopEntries the max nr of entries that should be in sortedTopMoves
-     * @param restMoves is not sorted.
-     * @return true if evMove is a new top move, false otherwise
-     */
-    static boolean addEvaluatedMoveToSortedListOfCol(EvaluatedMove evMove,
-                                                     List<EvaluatedMove> sortedTopMoves,
-                                                     boolean color, int maxTopEntries,
-                                                     List<EvaluatedMove> restMoves) {
-        int i;
-        for (i = sortedTopMoves.size() - 1; i >= 0; i--) {
-            if (!evMove.isBetterForColorThan(color, sortedTopMoves.get(i))) {
-                // not better, but it was better than the previous, so add below
-                if (i < maxTopEntries)
-                    sortedTopMoves.add(i + 1, evMove);
-                // move lower rest if top list became too big
-                while (sortedTopMoves.size() > maxTopEntries) {
-                    restMoves.add(
-                        sortedTopMoves.remove(maxTopEntries) );
-                }
-                return false;
-            }
-        }
-        //it was best!!
-        sortedTopMoves.add(0, evMove);
-        // move lower rest if top list became too big
-        while (sortedTopMoves.size() > maxTopEntries) {
-            restMoves.add(
-                sortedTopMoves.remove(maxTopEntries) );
-        }
-        return true;
-    }
-
     public Evaluation eval() {
         return eval;
     }
@@ -22,28 +22,33 @@ import java.util.AbstractCollection;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static de.ensel.chessbasics.ChessBasics.NR_SQUARES;
 
 public class EvaluatedMovesCollection extends AbstractCollection<EvaluatedMove> {
     /**
      * chances (or risks) for a certain move of the Piece - more or less a collection of the chances of its vPces with d==1.
-     * All variants of the moves (like for different targets etc) are "collapsed" i.e. summed up.
-     * for fast access, the Hashmap key is the to-square.
-     * K: to, E: EvaluatedMove to move my Piece from myPos to to.
+     * All variants of the moves (like for different targets or promotions) are "collapsed" i.e. summed up.
+     * for fast access, the discriminator is the to-square and directly indexes evMovesPerTo, bit n of liveMask tells
+     * if there is an EvaluatedMove to n. So no hashing and boxing is needed and iteration just runs over the set bits.
+     * Other discriminators (not used by ChessPiece) are kept in a map, created only if needed.
      */
-    private HashMap<Integer, EvaluatedMove> evMoves;   // stores real moves (i.e. d==1) and the chances they have on certain future-levels (thus the Array of relEvals)public EvaluatedMovesCollection() {
+    private final EvaluatedMove[] evMovesPerTo = new EvaluatedMove[NR_SQUARES];   // stores real moves (i.e. d==1) and the chances they have on certain future-levels (thus the Array of relEvals)
+    private long liveMask = 0L;
+    private HashMap<Integer, EvaluatedMove> otherEvMoves = null;
 
     private final boolean color;  // color is needed to know how to aggregate move evaluations (board perspective:
+                                  // larger number are better for white, smaller is better for black)
 
     public EvaluatedMovesCollection(boolean color) {
-        this.evMoves = new HashMap<>(8);;
         this.color = color;
     }
-    // larger number are better for white, smaller is better for black)
 
     Collection<EvaluatedMove> getAllEvMoves() {
-        if (evMoves == null || evMoves.isEmpty())
+        if (isEmpty())
             return null;
-        return evMoves.values();
+        return this;
     }
 
     /**
@@ -52,7 +57,9 @@ public class EvaluatedMovesCollection extends AbstractCollection<EvaluatedMove>
      * @return the one (single or aggregated) EvaluatedMove
      */
     EvaluatedMove getEvMove(int discriminator) {
-        return evMoves.get(discriminator);
+        if (isToSquare(discriminator))
+            return evMovesPerTo[discriminator];
+        return otherEvMoves == null ? null : otherEvMoves.get(discriminator);
     }
 
     /**
@@ -65,10 +72,10 @@ public class EvaluatedMovesCollection extends AbstractCollection<EvaluatedMove>
     }
 
     public boolean addMax(EvaluatedMove em, int discriminator) {
-        EvaluatedMove existingEm = evMoves.get(discriminator);
+        EvaluatedMove existingEm = getEvMove(discriminator);
         if ( existingEm == null ) {
             // not found -> this is a new move
-            evMoves.put(discriminator, em);
+            put(em, discriminator);
         }
         else {
             // we already had an evaluation for the same move-to
@@ -92,10 +99,10 @@ public class EvaluatedMovesCollection extends AbstractCollection<EvaluatedMove>
         if (em==null)
             return false;
 
-        EvaluatedMove existingEm = evMoves.get(discriminator);
+        EvaluatedMove existingEm = getEvMove(discriminator);
         if ( existingEm == null ) {
             // not found -> this is a new move
-            evMoves.put(discriminator, em);
+            put(em, discriminator);
         }
         else {
             // we already had an evaluation for the same move-to
@@ -104,14 +111,64 @@ public class EvaluatedMovesCollection extends AbstractCollection<EvaluatedMove>
         return true;
     }
 
+    private void put(EvaluatedMove em, int discriminator) {
+        if (isToSquare(discriminator)) {
+            evMovesPerTo[discriminator] = em;
+            liveMask |= 1L << discriminator;
+            return;
+        }
+        if (otherEvMoves == null)
+            otherEvMoves = new HashMap<>(4);
+        otherEvMoves.put(discriminator, em);
+    }
+
+    private static boolean isToSquare(int discriminator) {
+        return discriminator >= 0 && discriminator < NR_SQUARES;
+    }
+
+    /**
+     * iterates the moves in ascending order of their to-squares, then the ones with other discriminators
+     */
     @Override
     public Iterator<EvaluatedMove> iterator() {
-        return evMoves.values().iterator();
+        return new Iterator<>() {
+            private long remaining = liveMask;
+            private final Iterator<EvaluatedMove> others = otherEvMoves == null ? null : otherEvMoves.values().iterator();
+
+            @Override
+            public boolean hasNext() {
+                return remaining != 0L || (others != null && others.hasNext());
+            }
+
+            @Override
+            public EvaluatedMove next() {
+                if (remaining != 0L) {
+                    final int to = Long.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    return evMovesPerTo[to];
+                }
+                if (others != null)
+                    return others.next();
+                throw new NoSuchElementException();
+            }
+        };
     }
 
     @Override
     public int size() {
-        return evMoves.size();
+        return Long.bitCount(liveMask) + (otherEvMoves == null ? 0 : otherEvMoves.size());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return liveMask == 0L && (otherEvMoves == null || otherEvMoves.isEmpty());
+    }
+
+    /**
+     * @return bitmap (bit n for position n, see RayAttacks) of the to-squares of the moves in this collection
+     */
+    long getToSquaresBitmap() {
+        return liveMask;
     }
 
     //// specialized getters
@@ -120,4 +177,4 @@ public class EvaluatedMovesCollection extends AbstractCollection<EvaluatedMove>
         return color;
     }
 
-}
\ No newline at end of file
+}
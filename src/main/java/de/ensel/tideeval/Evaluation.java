@@ -75,15 +75,47 @@ public class Evaluation {
 
     ////
     boolean isGoodForColor(boolean color) {
-        return isBetterForColorThan(color,new Evaluation(-1));
+        return isGoodForColor(color, rawEval, 0);
     }
 
     boolean isBetterForColorThan(boolean color, Evaluation oEval) {
+        boolean probablyBetter = isBetterForColorThan(color, rawEval, 0, oEval.rawEval, 0);
+        if (DEBUGMSG_MOVEEVAL_COMPARISON) {
+            debugPrintln(DEBUGMSG_MOVEEVAL_COMPARISON, "=> " + probablyBetter + ". ");
+            DEBUGMSG_MOVEEVAL_COMPARISON = false;
+            boolean oppositeComparison = oEval.isBetterForColorThan(color, this);
+            DEBUGMSG_MOVEEVAL_COMPARISON = true;
+            if (probablyBetter && oppositeComparison)
+                debugPrintln(DEBUGMSG_MOVEEVAL_COMPARISON, " X!X: "
+                        + oEval + " isBetterFor " + colorName(color) + " than " + this
+                        + " - but opposite comparison should not also be true!");
+            else if (!probablyBetter && !oppositeComparison)
+                debugPrintln(DEBUGMSG_MOVEEVAL_COMPARISON, " X!X: "
+                        + oEval + " isNOTBetterFor " + colorName(color) + " than " + this
+                        + " - but opposite comparison should not also be false!");
+        }
+        return probablyBetter;
+    }
+
+
+    //// operations on raw evaluation rows, i.e. MAX_EVALDEPTH ints starting at an offset in an int array.
+    //// They allow to store many evaluations in one array (see EvalPerTargetAggregation), the methods
+    //// of Evaluation above and below work the same way on their own rawEval.
+
+    private static final int[] NO_EVAL_ROW = new int[MAX_EVALDEPTH];
+    private static final int COMPARE_THRESHOLD = 36;   // at level 0, see isBetterForColorThan()
+    private static final int COMPARE_BIAS = 4;
+
+    static boolean isGoodForColor(boolean color, int[] raw, int off) {
+        return isBetterForColorThan(color, raw, off, NO_EVAL_ROW, 0);
+    }
+
+    static boolean isBetterForColorThan(boolean color, int[] raw, int off, int[] oRaw, int oOff) {
         int i = 0;
         //if (DEBUGMSG_MOVESELECTION)
         //    debugPrint(DEBUGMSG_MOVESELECTION, "  comparing move eval " + this + " at "+i + " with " + oEval +": ");
-        int comparethreshold = 36; // 23 -> 34 -> 51
-        int bias = isWhite(color) ? -4 : +4;
+        int comparethreshold = COMPARE_THRESHOLD; // 23 -> 34 -> 51
+        int bias = isWhite(color) ? -COMPARE_BIAS : +COMPARE_BIAS;
         boolean probablyBetter = false;
         boolean probablyALittleBetter = true;
         while (i < MAX_EVALDEPTH) {
@@ -93,36 +125,36 @@ public class Evaluation {
                 comparethreshold += 8;
             else if (i==3)
                 comparethreshold += 9;
-            if (isWhite(color) ? rawEval[i] + bias - oEval.rawEval[i] > comparethreshold
-                    : rawEval[i] + bias - oEval.rawEval[i] < -comparethreshold) {
+            if (isWhite(color) ? raw[off+i] + bias - oRaw[oOff+i] > comparethreshold
+                    : raw[off+i] + bias - oRaw[oOff+i] < -comparethreshold) {
                 if (DEBUGMSG_MOVEEVAL_COMPARISON)
                     debugPrint(DEBUGMSG_MOVEEVAL_COMPARISON, " done@" + i + " ");
                 probablyBetter = true;
                 break;
             }
-            else if (isWhite(color) ? rawEval[i] + bias - oEval.rawEval[i] < -(comparethreshold>>1) // - lowthreshold
-                    : rawEval[i] + bias - oEval.rawEval[i] > (comparethreshold>>1) ) {
+            else if (isWhite(color) ? raw[off+i] + bias - oRaw[oOff+i] < -(comparethreshold>>1) // - lowthreshold
+                    : raw[off+i] + bias - oRaw[oOff+i] > (comparethreshold>>1) ) {
                 if (DEBUGMSG_MOVEEVAL_COMPARISON)
                     debugPrint(DEBUGMSG_MOVEEVAL_COMPARISON, " done, worse@" + i + " ");
                 probablyBetter = false;
                 probablyALittleBetter = false;
                 break;
             }
-            else if (isWhite(color) ? rawEval[i] + bias - oEval.rawEval[i] > (comparethreshold >> 1)
-                    : rawEval[i] + bias - oEval.rawEval[i] < -(comparethreshold >> 1)) {
+            else if (isWhite(color) ? raw[off+i] + bias - oRaw[oOff+i] > (comparethreshold >> 1)
+                    : raw[off+i] + bias - oRaw[oOff+i] < -(comparethreshold >> 1)) {
                 probablyBetter = true;
                 // tighten comparethreshold more if it was almost a full hit and leave it almost the same if it was close to similar
                 // u76-u115: comparethreshold -= (comparethreshold>>2);
-                comparethreshold -= ( abs(rawEval[i]- oEval.rawEval[i]) - (comparethreshold>>1) );
+                comparethreshold -= ( abs(raw[off+i]- oRaw[oOff+i]) - (comparethreshold>>1) );
                 if (DEBUGMSG_MOVEEVAL_COMPARISON)
                     debugPrint(DEBUGMSG_MOVEEVAL_COMPARISON, " positive /");
             }
             else if ( probablyALittleBetter
-                    && (isWhite(color) ? rawEval[i] + bias - oEval.rawEval[i] < 0
-                    : rawEval[i] + bias - oEval.rawEval[i] > 0) ) {
+                    && (isWhite(color) ? raw[off+i] + bias - oRaw[oOff+i] < 0
+                    : raw[off+i] + bias - oRaw[oOff+i] > 0) ) {
                 probablyALittleBetter = false;
             }
-            bias += (bias>>3) + rawEval[i]- oEval.rawEval[i];
+            bias += (bias>>3) + raw[off+i]- oRaw[oOff+i];
             if (DEBUGMSG_MOVEEVAL_COMPARISON)
                 debugPrint(DEBUGMSG_MOVEEVAL_COMPARISON, " similar@=" + i + " (bias="+bias+") " ); // + " " + Arrays.toString(eval) + ".");
             i++;  // almost same evals on the future levels so far, so continue comparing
@@ -132,23 +164,56 @@ public class Evaluation {
                 debugPrint(DEBUGMSG_MOVEEVAL_COMPARISON, "-> almost same but slighly better ");
             probablyBetter = true;
         }
-        if (DEBUGMSG_MOVEEVAL_COMPARISON) {
-            debugPrintln(DEBUGMSG_MOVEEVAL_COMPARISON, "=> " + probablyBetter + ". ");
-            DEBUGMSG_MOVEEVAL_COMPARISON = false;
-            boolean oppositeComparison = oEval.isBetterForColorThan(color, this);
-            DEBUGMSG_MOVEEVAL_COMPARISON = true;
-            if (probablyBetter && oppositeComparison)
-                debugPrintln(DEBUGMSG_MOVEEVAL_COMPARISON, " X!X: "
-                        + oEval + " isBetterFor " + colorName(color) + " than " + this
-                        + " - but opposite comparison should not also be true!");
-            else if (!probablyBetter && !oppositeComparison)
-                debugPrintln(DEBUGMSG_MOVEEVAL_COMPARISON, " X!X: "
-                        + oEval + " isNOTBetterFor " + colorName(color) + " than " + this
-                        + " - but opposite comparison should not also be false!");
-        }
         return probablyBetter;
     }
 
+    /**
+     * tells if isBetterForColorThan() already decides "worse" at level 0 for an eval with eval0 compared to one
+     * with oEval0 - whatever the further levels are. This then also holds for every eval0 that is even worse for
+     * color, so it can be decided on an optimistic estimation of eval0.
+     */
+    static boolean isWorseAt0ForColorThan(boolean color, int eval0, int oEval0) {
+        return isWhite(color) ? eval0 - COMPARE_BIAS - oEval0 < -(COMPARE_THRESHOLD >> 1)
+                              : eval0 + COMPARE_BIAS - oEval0 > (COMPARE_THRESHOLD >> 1);
+    }
+
+    static void addRow(int[] raw, int off, int[] addRaw, int addOff) {
+        for (int i = 0; i < MAX_EVALDEPTH; i++)
+            raw[off + i] += addRaw[addOff + i];
+    }
+
+    static void subtractRow(int[] raw, int off, int[] subRaw, int subOff) {
+        for (int i = 0; i < MAX_EVALDEPTH; i++)
+            raw[off + i] -= subRaw[subOff + i];
+    }
+
+    static void maxRowPerFutureLevelFor(int[] raw, int off, int[] mRaw, int mOff, boolean color) {
+        for (int i = 0; i < MAX_EVALDEPTH; i++)
+            raw[off + i] = maxFor(mRaw[mOff + i], raw[off + i], color);
+    }
+
+    static void timeWarpRow(int[] raw, int off, int futureLevelDelta) {
+        if (futureLevelDelta<0) {
+            if (futureLevelDelta<-MAX_EVALDEPTH)
+                futureLevelDelta = -MAX_EVALDEPTH;
+            System.arraycopy(raw, off - futureLevelDelta, raw, off, MAX_EVALDEPTH + futureLevelDelta);
+            Arrays.fill(raw, off + MAX_EVALDEPTH + futureLevelDelta, off + MAX_EVALDEPTH, 0);
+        }
+        else if (futureLevelDelta>0) {
+            if (futureLevelDelta>MAX_EVALDEPTH)
+                futureLevelDelta = MAX_EVALDEPTH;
+            System.arraycopy(raw, off, raw, off + futureLevelDelta, MAX_EVALDEPTH - futureLevelDelta);
+            Arrays.fill(raw, off, off + futureLevelDelta, 0);
+        }
+    }
+
+    /**
+     * @return the live rawEval of this Evaluation (not a copy), so it can be changed with the row operations
+     */
+    int[] rawEvalRow() {
+        return rawEval;
+    }
+
     private void copy(Evaluation oeval) {
         assert (this.target == oeval.target);
         this.rawEval = Arrays.copyOf(oeval.rawEval, MAX_EVALDEPTH);
@@ -192,18 +257,14 @@ public class Evaluation {
     }
 
     public Evaluation addEval(Evaluation addEval) {
-        if (addEval != null) {
-            for (int i = 0; i < MAX_EVALDEPTH; i++)
-                this.rawEval[i] += addEval.rawEval[i];
-        }
+        if (addEval != null)
+            addRow(rawEval, 0, addEval.rawEval, 0);
         return this;
     }
 
     public Evaluation subtractEval(Evaluation addEval) {
-        if (addEval != null) {
-            for (int i = 0; i < MAX_EVALDEPTH; i++)
-                this.rawEval[i] -= addEval.rawEval[i];
-        }
+        if (addEval != null)
+            subtractRow(rawEval, 0, addEval.rawEval, 0);
         return this;
     }
 
@@ -215,11 +276,8 @@ public class Evaluation {
     }
 
     public Evaluation maxEvalPerFutureLevelFor(Evaluation meval, boolean color) {
-        if (meval != null) {
-            for (int i = 0; i < MAX_EVALDEPTH; i++) {
-                this.rawEval[i] = maxFor(meval.rawEval[i], rawEval[i], color);
-            }
-        }
+        if (meval != null)
+            maxRowPerFutureLevelFor(rawEval, 0, meval.rawEval, 0, color);
         return this;
     }
 
@@ -277,20 +335,7 @@ public class Evaluation {
      * @return this (but changed)
      */
     public Evaluation timeWarp(int futureLevelDelta) {
-        if (futureLevelDelta<0) {
-            if (futureLevelDelta<-MAX_EVALDEPTH)
-                futureLevelDelta = -MAX_EVALDEPTH;
-            for (int i = 0; i < MAX_EVALDEPTH; i++) {
-                rawEval[i] = i >= MAX_EVALDEPTH+futureLevelDelta ? 0 : rawEval[i-futureLevelDelta];
-            }
-        }
-        else if (futureLevelDelta>0) {
-            if (futureLevelDelta>MAX_EVALDEPTH)
-                futureLevelDelta = MAX_EVALDEPTH;
-            for (int i = MAX_EVALDEPTH-1; i>=0; i--) {
-                rawEval[i] = i < futureLevelDelta ? 0 : rawEval[i-futureLevelDelta];
-            }
-        }
+        timeWarpRow(rawEval, 0, futureLevelDelta);
         return this;
     }
 
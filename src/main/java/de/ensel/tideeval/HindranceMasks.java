@@ -0,0 +1,80 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import java.util.List;
+
+import static de.ensel.tideeval.RayAttacks.*;
+
+/**
+ * Bitmaps of the squares where a move of the other side would hinder one of a list of (opponent) moves, built
+ * once per list, e.g. for the bestOpponentMoves in ChessBoard.getBestMoveForColWhileAvoiding().
+ * Per move it holds the squares a piece can move to in order to block it: its from square (the moving piece is
+ * taken) and the squares between from and to. Additionally the unions over all moves of these blocking squares
+ * and of the to squares (vacating a to square may hinder or weaken a move) are kept. So a move whose to square
+ * is not in the blocking union and whose from square is not in the vacating union cannot hinder any of the
+ * moves, which is one bit test instead of running the object-level checks for each move.
+ */
+final class HindranceMasks {
+    private long[] blockingMasks = new long[20];   // [index in moves list] -> blocking squares of that move
+    private int size = 0;
+    private long anyBlocking = 0L;
+    private long anyVacating = 0L;
+
+    void build(final List<EvaluatedMove> moves) {
+        size = moves == null ? 0 : moves.size();
+        if (blockingMasks.length < size)
+            blockingMasks = new long[size];
+        anyBlocking = 0L;
+        anyVacating = 0L;
+        for (int i = 0; i < size; i++) {
+            final EvaluatedMove m = moves.get(i);
+            blockingMasks[i] = m == null ? 0L : blockingMask(m);
+            anyBlocking |= blockingMasks[i];
+            if (m != null && m.isMove())
+                anyVacating |= posBit(m.to());
+        }
+    }
+
+    /**
+     * @return squares where a piece hinders move m by going there: from (taking the mover) and the squares between
+     * from and to. 0 if m is no real move.
+     */
+    static long blockingMask(final Move m) {
+        if (!m.isMove())
+            return 0L;
+        return posBit(m.from()) | betweenBitmap(m.from(), m.to());
+    }
+
+    /**
+     * @return blocking squares of the i-th move of the list the masks were built for
+     */
+    long blockingMask(final int i) {
+        return blockingMasks[i];
+    }
+
+    /**
+     * @return false if move m can neither block any of the moves nor vacate the target of any of them, so none of
+     * the hindrance checks needs to be done for m. true means it might hinder (at least) one of them.
+     */
+    boolean mightHinderAny(final Move m) {
+        return m.isMove()
+                && (isPosInBitmap(m.to(), anyBlocking) || isPosInBitmap(m.from(), anyVacating));
+    }
+}
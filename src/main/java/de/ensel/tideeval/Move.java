@@ -169,6 +169,41 @@ public class Move {
         return (from << 8) + to;
     }
 
+    //// packed int representation of a move for internal hot paths, where no Move objects should be created:
+    //// bits 0-5: to, bits 6-11: from, bits 12-15: promotesTo (EMPTY if none). Only for real moves, see isMove().
+
+    private static final int PACKED_POS_MASK = 0x3f;
+    private static final int PACKED_FROM_SHIFT = 6;
+    private static final int PACKED_PROMOTION_SHIFT = 12;
+
+    static int packed(final int from, final int to) {
+        return (from << PACKED_FROM_SHIFT) | to;
+    }
+
+    static int packed(final int from, final int to, final int promotesTo) {
+        return (promotesTo << PACKED_PROMOTION_SHIFT) | (from << PACKED_FROM_SHIFT) | to;
+    }
+
+    static int packedFrom(final int packedMove) {
+        return (packedMove >>> PACKED_FROM_SHIFT) & PACKED_POS_MASK;
+    }
+
+    static int packedTo(final int packedMove) {
+        return packedMove & PACKED_POS_MASK;
+    }
+
+    static int packedPromotesTo(final int packedMove) {
+        return packedMove >>> PACKED_PROMOTION_SHIFT;
+    }
+
+    int packed() {
+        return packed(from, to, promotesTo);
+    }
+
+    static Move fromPacked(final int packedMove) {
+        return new Move(packedFrom(packedMove), packedTo(packedMove), packedPromotesTo(packedMove));
+    }
+
     /**
      * move sequence factory :-)
      */
@@ -0,0 +1,89 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Growable list of moves in their packed int representation (see Move.packed()), so moves can be collected on
+ * hot paths without creating Move objects.
+ */
+final class MoveList {
+    private int[] moves;
+    private int size = 0;
+
+    MoveList() {
+        this(8);
+    }
+
+    MoveList(final int capacity) {
+        moves = new int[capacity];
+    }
+
+    void add(final int from, final int to) {
+        addPacked(Move.packed(from, to));
+    }
+
+    void addPacked(final int packedMove) {
+        if (size == moves.length)
+            moves = Arrays.copyOf(moves, Math.max(4, size << 1));
+        moves[size++] = packedMove;
+    }
+
+    int getPacked(final int i) {
+        return moves[i];
+    }
+
+    int from(final int i) {
+        return Move.packedFrom(moves[i]);
+    }
+
+    int to(final int i) {
+        return Move.packedTo(moves[i]);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return the moves as Move objects, for use outside of the engine's internals
+     */
+    List<Move> toMoves() {
+        List<Move> res = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            res.add(Move.fromPacked(moves[i]));
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return toMoves().toString();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import static de.ensel.chessbasics.ChessBasics.*;
+
+/**
+ * Precomputed rays for sliding pieces as 64-bit bitmaps (bit n stands for board position n).
+ * Together with the occupancy bitmap of the board (see ChessBoard.getOccupiedBitmap()) it answers
+ * what a sliding piece directly reaches from a square without walking along the vPce neighbours.
+ */
+final class RayAttacks {
+
+    // [dirIndex][pos] -> all squares from pos (exclusive) in that direction up to the board edge
+    private static final long[][] RAYS = new long[MAXMAINDIRS][NR_SQUARES];
+    // [dirIndex] -> offset of that direction on the board
+    private static final int[] DIR_OF_INDEX = new int[MAXMAINDIRS];
+    // [fromPos][toPos] -> squares strictly between the two, resp. the whole line through both (incl. them),
+    // 0 if they are not on one line
+    private static final long[][] BETWEEN = new long[NR_SQUARES][NR_SQUARES];
+    private static final long[][] LINE = new long[NR_SQUARES][NR_SQUARES];
+
+    static {
+        for (int dir : MAINDIRS) {
+            int di = convertMainDir2DirIndex(dir);
+            DIR_OF_INDEX[di] = dir;
+            for (int pos = 0; pos < NR_SQUARES; pos++) {
+                long ray = 0L;
+                int p = pos;
+                while (neighbourSquareExistsInDirFromPos(dir, p)) {
+                    p += dir;
+                    ray |= posBit(p);
+                }
+                RAYS[di][pos] = ray;
+            }
+        }
+        for (int dir : MAINDIRS) {
+            final int di = convertMainDir2DirIndex(dir);
+            final int oppositeDi = convertMainDir2DirIndex(-dir);
+            for (int from = 0; from < NR_SQUARES; from++) {
+                final long line = RAYS[di][from] | RAYS[oppositeDi][from] | posBit(from);
+                long targets = RAYS[di][from];
+                while (targets != 0L) {
+                    final int to = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+                    BETWEEN[from][to] = RAYS[di][from] & ~RAYS[di][to] & ~posBit(to);
+                    LINE[from][to] = line;
+                }
+            }
+        }
+    }
+
+    private RayAttacks() {
+    }
+
+    static long posBit(final int pos) {
+        return 1L << pos;
+    }
+
+    static boolean isPosInBitmap(final int pos, final long bitmap) {
+        return (bitmap & posBit(pos)) != 0;
+    }
+
+    /**
+     * @return the empty-board ray from pos (exclusive) in direction dirIndex
+     */
+    static long ray(final int dirIndex, final int pos) {
+        return RAYS[dirIndex][pos];
+    }
+
+    /**
+     * squares directly reached in one direction: all empty squares plus the first occupied square on the ray
+     * @param dirIndex direction index (see ChessBasics)
+     * @param pos starting position (exclusive)
+     * @param occupied occupancy bitmap of the board
+     * @return bitmap of reached squares
+     */
+    static long rayAttacks(final int dirIndex, final int pos, final long occupied) {
+        final long ray = RAYS[dirIndex][pos];
+        final long blockers = ray & occupied;
+        if (blockers == 0)
+            return ray;
+        // rays with a positive offset grow to higher positions, so the closest blocker is the lowest bit
+        final int firstBlocker = DIR_OF_INDEX[dirIndex] > 0
+                ? Long.numberOfTrailingZeros(blockers)
+                : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ RAYS[dirIndex][firstBlocker];
+    }
+
+    /**
+     * all squares a sliding piece of pceType directly reaches (attacks or covers) from pos
+     * @return bitmap of reached squares, 0 for non-sliding piece types
+     */
+    static long slidingAttacks(final int pceType, final int pos, final long occupied) {
+        long attacks = 0L;
+        for (int di = 0; di < MAXMAINDIRS; di++)
+            if (isSlidingDirIndexOfPieceType(pceType, di))
+                attacks |= rayAttacks(di, pos, occupied);
+        return attacks;
+    }
+
+    /**
+     * squares strictly between fromPos and toPos, if they are on one sliding line
+     * @return bitmap of the squares in between, 0 if there are none or the squares are not on one line
+     */
+    static long betweenBitmap(final int fromPos, final int toPos) {
+        return BETWEEN[fromPos][toPos];
+    }
+
+    /**
+     * the whole line (from board edge to board edge) through pos1 and pos2
+     * @return bitmap of the line incl. pos1 and pos2, 0 if they are not on one sliding line
+     */
+    static long lineBitmap(final int pos1, final int pos2) {
+        return LINE[pos1][pos2];
+    }
+
+    /**
+     * like ChessBasics.isBetweenFromAndTo(), but a table lookup
+     * @return true if pos is strictly between from and to on one sliding line, false also for negative positions
+     */
+    static boolean isBetween(final int pos, final int from, final int to) {
+        if ((pos | from | to) < 0)
+            return false;
+        return isPosInBitmap(pos, BETWEEN[from][to]);
+    }
+
+    static boolean isSlidingDirIndexOfPieceType(final int pceType, final int dirIndex) {
+        return switch (colorlessPieceType(pceType)) {
+            case QUEEN -> true;
+            case ROOK -> isRookDir(DIR_OF_INDEX[dirIndex]);
+            case BISHOP -> isBishopDir(DIR_OF_INDEX[dirIndex]);
+            default -> false;
+        };
+    }
+
+    static int dirOfDirIndex(final int dirIndex) {
+        return DIR_OF_INDEX[dirIndex];
+    }
+}
@@ -35,33 +35,107 @@ public class Square {
     private final List<VirtualPieceOnSquare> vPieces;  // TODO: change to plain old []
 
     private int clashEvalResult = 0;
-    private List<Move> clashMoves = null;
+    private final MoveList clashMoves = new MoveList(4);   // the reasonable moves of the clash, refilled by every clash calculation
     private int[] futureClashResults = null;
     private long clashResultsLastUpdate = -1;
 
     // new implementation of clash calculation is without GlubschFishes CBM code - able to deal wit varying piece values, but non-caching
     /**
-     * coverageOfColorPerHops.get(HOPCOUNT).get(COLOR) -> List of vPces
+     * coveragePceIds[HOPCOUNT][COLORINDEX][0..nrOfCoverage[HOPCOUNT][COLORINDEX]) -> piece ids of the covering vPces,
+     * ordered by piece value.
      * HOPCOUNT==0 is actuall hopcount 1 with direct clash and
      * HOPCOUNT==1 is hopcount 1 in 2nd row. all following n are n...
+     * coverage(HOPCOUNT, COLORINDEX) gives a read-only List view of the vPces.
      */
-    List<List<List<VirtualPieceOnSquare>>> coverageOfColorPerHops;
+    private final int[][][] coveragePceIds;
+    private final int[][] nrOfCoverage;
+    private final List<VirtualPieceOnSquare>[][] coverageViews;
+    private final List<List<VirtualPieceOnSquare>> coverageScratch;   // reusable copies of coverage lists for clash simulations that consume them
     boolean[] blocksCheckFor = new boolean[2];  // tells if a piece here can block a check here (for king with colorindex) by taking a checker of moving in the way
     private final boolean[] extraCoverageOfKingPinnedPiece  = new boolean[2];  // extra coverage of this square by a king-pinned piece - this does not count for clashes, but still prevents the king to take back or go there...
 
+    // scratch space of the clash simulation in updateClashResultAndRelEvals(), kept per square, so the hot loop
+    // does not allocate. [colorIndex][i] with the nr of valid entries in the corresponding nrOf... array.
+    private final VirtualPieceOnSquare[][] clashCandidates = new VirtualPieceOnSquare[2][MAX_PIECES + 2];
+    private final int[] nrOfClashCandidates = new int[2];
+    private final int[] clashWorklistStart = new int[2];   // the not yet used clashCandidates start here
+    //clash2ndRow those "in second row" (Queen behind a rook, bishop behind a pawn, etc.)
+    private final VirtualPieceOnSquare[][] clash2ndRow = new VirtualPieceOnSquare[2][MAX_PIECES];
+    private final int[] nrOfClash2ndRow = new int[2];
+    private final VirtualPieceOnSquare[] specialFirstVisitor = new VirtualPieceOnSquare[2];
+    private final int[] clashResultIfTaken = new int[2 * MAX_PIECES + 4];
+    private final int[] clashMovesFrom = new int[2 * MAX_PIECES + 4];  // the moves of the simulated clash, all go to myPos
+
+    // fingerprint of the inputs of the last futureClashResults calculation, see calcFutureClashEval().
+    // Two buffers are swapped, so the previous one can be compared against.
+    private int[] futureClashFingerprint = new int[64];
+    private int futureClashFingerprintLen = 0;
+    private int[] nextFutureClashFingerprint = new int[64];
+    private int nextFutureClashFingerprintLen = 0;
 
     Square(ChessBoard myChessBoard, int myPos) {
         this.board = myChessBoard;
         this.myPos = myPos;
         myPieceID = NO_PIECE_ID;
         vPieces = new ArrayList<>(MAX_PIECES);
-        coverageOfColorPerHops = new ArrayList<>(MAX_INTERESTING_NROF_HOPS+1);
+        coveragePceIds = new int[MAX_INTERESTING_NROF_HOPS+1][2][MAX_PIECES];
+        nrOfCoverage = new int[MAX_INTERESTING_NROF_HOPS+1][2];
         //clashResultsNowAndFuture = new int[MAX_INTERESTING_NROF_HOPS];
+        coverageViews = new CoverageView[MAX_INTERESTING_NROF_HOPS+1][2];
         for (int h=0; h<=MAX_INTERESTING_NROF_HOPS; h++) {
-            coverageOfColorPerHops.add(new ArrayList<>(2));
-            coverageOfColorPerHops.get(h).add(new ArrayList<>()); // for white
-            coverageOfColorPerHops.get(h).add(new ArrayList<>()); // for black
+            coverageViews[h][CIWHITE] = new CoverageView(h, CIWHITE);
+            coverageViews[h][CIBLACK] = new CoverageView(h, CIBLACK);
         }
+        coverageScratch = new ArrayList<>(4);
+        for (int i = 0; i < 4; i++)
+            coverageScratch.add(new ArrayList<>(MAX_PIECES));
+    }
+
+    /**
+     * read-only view on the vPces in coveragePceIds[hops][ci], ordered by piece value
+     */
+    private final class CoverageView extends AbstractList<VirtualPieceOnSquare> implements RandomAccess {
+        private final int[] pceIds;
+        private final int[] nrOf;
+        private final int ci;
+
+        CoverageView(final int hops, final int ci) {
+            this.pceIds = coveragePceIds[hops][ci];
+            this.nrOf = nrOfCoverage[hops];
+            this.ci = ci;
+        }
+
+        @Override
+        public VirtualPieceOnSquare get(final int index) {
+            if (index >= nrOf[ci])
+                throw new IndexOutOfBoundsException(index);
+            return vPieces.get(pceIds[index]);
+        }
+
+        @Override
+        public int size() {
+            return nrOf[ci];
+        }
+    }
+
+    /**
+     * @return read-only List of the vPces of color index ci covering this square at the given hop level
+     */
+    List<VirtualPieceOnSquare> coverage(final int hops, final int ci) {
+        return coverageViews[hops][ci];
+    }
+
+    /**
+     * @return a modifiable copy of coverage(hops, ci) in the scratch list nr scratchNr (0..3) - which is
+     * reused, so it is only valid until the next call with the same scratchNr.
+     */
+    private List<VirtualPieceOnSquare> coverageCopy(final int scratchNr, final int hops, final int ci) {
+        final List<VirtualPieceOnSquare> copy = coverageScratch.get(scratchNr);
+        copy.clear();
+        final int[] pceIds = coveragePceIds[hops][ci];
+        for (int i = 0; i < nrOfCoverage[hops][ci]; i++)
+            copy.add(vPieces.get(pceIds[i]));
+        return copy;
     }
 
     void prepareNewPiece(int newPceID) {
@@ -100,6 +174,7 @@ public class Square {
         //TODO-optimize: do this only, if piece was relevant for clashes
         clearCoveragePerHopsLists();
         clashResultsLastUpdate = 0; // outdated
+        board.updateSquareAttacksValues(myPos, getAttacksValueForColor(WHITE), getAttacksValueForColor(BLACK));
     }
 
     void emptySquare() {
@@ -178,10 +253,10 @@ public class Square {
     /**
      * determines which Pieces of that color block from (i.e. are in the way of) an attack of the opposite color.
      * @param color:  normally the same color than my own Piece (but square could also be empty)
-     * @return List<Integer> with positions of the covering pieces
+     * @return bitmap with the positions of the covering pieces (bit n for position n, see RayAttacks)
      */
-    public List<Integer> getPositionsOfPiecesThatBlockWayAndAreOfColor(boolean color) {
-        List<Integer> result =  new ArrayList<>();
+    long getPiecesThatBlockWayAndAreOfColorBitmap(boolean color) {
+        long result = 0L;
         for (VirtualPieceOnSquare vPce : vPieces) {
             if (vPce != null ) {
                 ConditionalDistance d = vPce.getMinDistanceFromPiece();
@@ -190,7 +265,7 @@ public class Square {
                     int blockingPiecePos = d.getFromCond(0);
                     ChessPiece blockingPiece = board.getPieceAt(blockingPiecePos);
                     if (blockingPiece!=null && blockingPiece.color()==color) // Problem ==null on 9th game move Qxd5 -> here square e1 vPce id=3, blockingPcePos==36==e4 is empty
-                        result.add(blockingPiecePos);   // the pos is stored in the fromCondition from where the piece needs to disappear from, so that vPce covers the wanted square.
+                        result |= RayAttacks.posBit(blockingPiecePos);   // the pos is stored in the fromCondition from where the piece needs to disappear from, so that vPce covers the wanted square.
                 }
             }
         }
@@ -200,14 +275,14 @@ public class Square {
     String getCoverageInfoByColorForLevel(final boolean color, final int level) {
         StringBuilder s = new StringBuilder(20);
         s.append(level).append(":");
-        if (level==1 && coverageOfColorPerHops.get(0).get(colorIndex(color)).size()>0 ) {
+        if (level==1 && nrOfCoverage[0][colorIndex(color)]>0 ) {
             // at (0) there are also level==1vPieces, so print them also
-            for (VirtualPieceOnSquare vPce : coverageOfColorPerHops.get(0).get(colorIndex(color)))
+            for (VirtualPieceOnSquare vPce : coverage(0, colorIndex(color)))
                 s.append(fenCharFromPceType(vPce.getPieceType()));
-            if (coverageOfColorPerHops.get(1).get(colorIndex(color)).size()>0)
+            if (nrOfCoverage[1][colorIndex(color)]>0)
                 s.append("+");
         }
-        for (VirtualPieceOnSquare vPce:coverageOfColorPerHops.get(level).get(colorIndex(color)))
+        for (VirtualPieceOnSquare vPce:coverage(level, colorIndex(color)))
             s.append(fenCharFromPceType(vPce.getPieceType()));
         return s.toString();
     }
@@ -243,6 +318,171 @@ public class Square {
     }
 
 
+    /**
+     * same as calcClashResultExcludingOne() with no 2nd row pieces, but on the clash candidate arrays:
+     * whites[whitesFrom..whitesTo) and blacks[blacksFrom..blacksTo) are sorted directly covering vPces.
+     * Does not change the arrays.
+     */
+    private int calcClashResultExcludingOne(final boolean turn,
+                                            final VirtualPieceOnSquare vPceOnSquare,
+                                            final VirtualPieceOnSquare[] whites, int whitesFrom, final int whitesTo,
+                                            final VirtualPieceOnSquare[] blacks, int blacksFrom, final int blacksTo,
+                                            final VirtualPieceOnSquare excludeVPce1,
+                                            final VirtualPieceOnSquare excludeVPce2
+    ) {
+        // start simulation with my own piece on the square and the opponent to decide whether to take it or not
+        int resultIfTaken = -vPceOnSquare.getValue();
+        VirtualPieceOnSquare assassin;
+        if (isWhite(turn)) {
+            if (whitesFrom >= whitesTo)
+                return 0;
+            assassin = whites[whitesFrom++];
+            if (assassin==excludeVPce1 || assassin==excludeVPce2) {
+                if (whitesFrom >= whitesTo)
+                    return 0;
+                assassin = whites[whitesFrom++];
+            }
+        } else {
+            if (blacksFrom >= blacksTo)
+                return 0;
+            assassin = blacks[blacksFrom++];
+            if (assassin==excludeVPce1 || assassin==excludeVPce2) {
+                if (blacksFrom >= blacksTo)
+                    return 0;
+                assassin = blacks[blacksFrom++];
+            }
+        }
+        // King can only take if there are no more enemies left defending this square + remaining piece
+        if ( isKing(assassin.getPieceType()) ) {
+            if ( extraCoverageOfKingPinnedPiece(opponentColor(turn)) )
+                return 0;
+            final VirtualPieceOnSquare[] opps = isWhite(turn) ? blacks : whites;
+            final int oppsFrom = isWhite(turn) ? blacksFrom : whitesFrom;
+            final int oppsTo = isWhite(turn) ? blacksTo : whitesTo;
+            int oppLeft = oppsTo - oppsFrom
+                    - (indexInRange(opps, oppsFrom, oppsTo, excludeVPce1) >= 0 ? 1 : 0)
+                    - ( excludeVPce1 != excludeVPce2 && indexInRange(opps, oppsFrom, oppsTo, excludeVPce2) >= 0 ? 1 : 0);
+            if ( oppLeft > 0)
+                return 0;
+        }
+
+        resultIfTaken += calcClashResultExcludingOne(
+                !turn,assassin,
+                whites, whitesFrom, whitesTo,
+                blacks, blacksFrom, blacksTo,
+                excludeVPce1,
+                excludeVPce2);
+        if ( isWhite(turn) && resultIfTaken<0
+                || !isWhite(turn) && resultIfTaken>0 )
+            return 0;  // do not take, it's not worth it
+        return resultIfTaken;
+    }
+
+    /**
+     * calcClashResultExcludingOne() on the clash candidate arrays (from index 0 on), but looks the result up in the
+     * ClashResultCache first, as it only depends on the values of the participants.
+     */
+    private int cachedClashResultExcludingOne(final boolean turn,
+                                              final VirtualPieceOnSquare vPceOnSquare,
+                                              final VirtualPieceOnSquare[] whites, final int whitesTo,
+                                              final VirtualPieceOnSquare[] blacks, final int blacksTo,
+                                              final VirtualPieceOnSquare excludeVPce1,
+                                              final VirtualPieceOnSquare excludeVPce2
+    ) {
+        final ClashResultCache cache = ClashResultCache.forCurrentThread();
+        // the signature treats the excluded vPce as removed, so the 2nd one must not take part
+        if ( excludeVPce2 == excludeVPce1
+                || ( indexInRange(whites, 0, whitesTo, excludeVPce2) < 0
+                     && indexInRange(blacks, 0, blacksTo, excludeVPce2) < 0 ) ) {
+            startClashCacheKey(cache, turn, vPceOnSquare);
+            if (cache.addAttackers(whites, 0, whitesTo, excludeVPce1)) {
+                cache.nextSide();
+                if (cache.addAttackers(blacks, 0, blacksTo, excludeVPce1)) {
+                    int result = cache.lookup();
+                    if (result == ClashResultCache.NOT_CACHED) {
+                        result = calcClashResultExcludingOne(turn, vPceOnSquare,
+                                whites, 0, whitesTo, blacks, 0, blacksTo,
+                                excludeVPce1, excludeVPce2);
+                        cache.store(result);
+                    }
+                    return result;
+                }
+            }
+        }
+        return calcClashResultExcludingOne(turn, vPceOnSquare,
+                whites, 0, whitesTo, blacks, 0, blacksTo,
+                excludeVPce1, excludeVPce2);
+    }
+
+    /**
+     * same for the lists based calcClashResultExcludingOne() - without 2nd row pieces (whiteOthers, blackOthers).
+     * excludeVPce is the vPceOnSquare itself.
+     */
+    private int cachedClashResultExcludingOne(final boolean turn,
+                                              final VirtualPieceOnSquare vPceOnSquare,
+                                              final List<VirtualPieceOnSquare> whites,
+                                              final List<VirtualPieceOnSquare> blacks,
+                                              final VirtualPieceOnSquare excludeVPce,
+                                              final MoveList moves
+    ) {
+        final ClashResultCache cache = ClashResultCache.forCurrentThread();
+        startClashCacheKey(cache, turn, vPceOnSquare);
+        if (cache.addAttackers(whites, excludeVPce)) {
+            cache.nextSide();
+            if (cache.addAttackers(blacks, excludeVPce)) {
+                int result = cache.lookup();
+                if (result == ClashResultCache.NOT_CACHED) {
+                    result = calcClashResultExcludingOne(turn, vPceOnSquare, whites, blacks,
+                            excludeVPce, null, null, moves);
+                    cache.store(result);
+                }
+                return result;
+            }
+        }
+        return calcClashResultExcludingOne(turn, vPceOnSquare, whites, blacks,
+                excludeVPce, null, null, moves);
+    }
+
+    private void startClashCacheKey(final ClashResultCache cache, final boolean turn,
+                                    final VirtualPieceOnSquare vPceOnSquare) {
+        cache.startKey(turn, vPceOnSquare.getValue(),
+                extraCoverageOfKingPinnedPiece[CIWHITE], extraCoverageOfKingPinnedPiece[CIBLACK]);
+    }
+
+    /**
+     * sets clashMoves to the first nrOfMoves moves of the simulated clash (see clashMovesFrom)
+     * @param nrOfMoves nr of moves of the simulated clash that were reasonable
+     */
+    private void setClashMoves(final int nrOfMoves) {
+        clashMoves.clear();
+        for (int i = 0; i < nrOfMoves; i++)
+            clashMoves.add(clashMovesFrom[i], getMyPos());
+    }
+
+    private static int indexInRange(final VirtualPieceOnSquare[] vPces, final int from, final int to,
+                                    final VirtualPieceOnSquare vPce) {
+        for (int i = from; i < to; i++)
+            if (vPces[i] == vPce)
+                return i;
+        return -1;
+    }
+
+    /**
+     * stable insertion sort of vPces[from..to) by VirtualPieceOnSquare::compareTo - results in the same order
+     * as List.sort(), but works in place. The ranges are short and mostly sorted already.
+     */
+    private static void sortRange(final VirtualPieceOnSquare[] vPces, final int from, final int to) {
+        for (int i = from + 1; i < to; i++) {
+            final VirtualPieceOnSquare v = vPces[i];
+            int j = i - 1;
+            while (j >= from && vPces[j].compareTo(v) > 0) {
+                vPces[j + 1] = vPces[j];
+                j--;
+            }
+            vPces[j + 1] = v;
+        }
+    }
+
     /**
      * calculates the clash result if a piece vPceOnSquare is on a square directly (d==1) covered
      * by whites and blacks. it excludes the one excludeVPce. this is useful to calc as if that pce had
@@ -257,7 +497,7 @@ public class Square {
                                                    final VirtualPieceOnSquare excludeVPce,
                                                    final List<VirtualPieceOnSquare> whiteOthers,
                                                    final List<VirtualPieceOnSquare> blackOthers,
-                                                   List<Move> moves
+                                                   MoveList moves
     ) {
         return calcClashResultExcludingOne(turn, vPceOnSquare, whites, blacks,
                                            excludeVPce, vPceOnSquare, whiteOthers, blackOthers, moves);
@@ -271,12 +511,12 @@ public class Square {
                                                     final VirtualPieceOnSquare excludeVPce2,
                                                     final List<VirtualPieceOnSquare> whiteOthers,
                                                     final List<VirtualPieceOnSquare> blackOthers,
-                                                    List<Move> moves
+                                                    MoveList moves
     ) {
         boolean whitesIsCopy = false;
         boolean blacksIsCopy = false;
         if (moves==null)
-            moves = new ArrayList<>();
+            moves = new MoveList();
 
         // see if whites and blacks need to be filled up from the 2nd row, as conditions are fulfilled now:
         if (whiteOthers!=null)
@@ -358,8 +598,8 @@ public class Square {
         //  has doubled to 1:30-2 min since necessary changes in CD were made + increase to even 2:15-3 min(!!), when the following
         //  code was added to make use of the information - so the whole evaluation time has almost tripled just to tell
         //  that a bishop is behind a pawn and similar...
-        moves.add(new Move( assassin.getMyPiecePos(),
-                vPceOnSquare.getMyPos()));  // ToDo: Make+use getter for myPos
+        moves.add( assassin.getMyPiecePos(),
+                vPceOnSquare.getMyPos());  // ToDo: Make+use getter for myPos
         //// filling up whites and blacks from 2nd row, was originally implemented here, but in cases where the 1st row is empty from the beginning, this was not working.
 
         resultIfTaken += calcClashResultExcludingOne(
@@ -385,25 +625,22 @@ public class Square {
             return;  // nothing new to calculate
         clashResultsLastUpdate = board.nextUpdateClockTick();
 
-        // update/set coverageOfColorPerHops
+        // update/set coverage lists
         clearCoveragePerHopsLists();
         // run over all vPieces on this square and correctly build the pre-ordered vPce-Lists
         // (that are later used to calculate the clashes)
         // at the same time find clash candidates, that will be sorted into the two above during clash evaluation
-        List<List<VirtualPieceOnSquare>> clashCandidates = new ArrayList<>(2);
-        //clash2ndRow those "in second row" (Queen behind a rook, bishop behind a pawn, etc.)
-        List<List<VirtualPieceOnSquare>> clash2ndRow = new ArrayList<>(2);
-        List<VirtualPieceOnSquare> specialFirstVisitor = new ArrayList<>(2);
+        // (all in the per-square clash scratch arrays, see there)
         for (int ci = 0; ci <= 1; ci++) {
-            clashCandidates.add(new ArrayList<>());
-            clash2ndRow.add(new ArrayList<>());
-            specialFirstVisitor.add(null);
+            nrOfClashCandidates[ci] = 0;
+            nrOfClash2ndRow[ci] = 0;
+            specialFirstVisitor[ci] = null;
         }
         if (DEBUGMSG_CLASH_CALCULATION) {
             debugPrintln(DEBUGMSG_CLASH_CALCULATION, "");
             debugPrint(DEBUGMSG_CLASH_CALCULATION, "Evaluating " + this + ": ");
         }
-        clashMoves = null;
+        clashMoves.clear();
         extraCoverageOfKingPinnedPiece[CIWHITE] = false;
         extraCoverageOfKingPinnedPiece[CIBLACK] = false;
         for (VirtualPieceOnSquare vPce : vPieces)
@@ -414,8 +651,8 @@ public class Square {
                 if (d == 1) {
                     debugPrint(DEBUGMSG_CLASH_CALCULATION, " +adding direct clash candidate:");
                     putVPceIntoCoverageList(vPce, 0);
-                    clashCandidates.get(colorIndex(vPce.color()))
-                            .add(vPce);
+                    final int ci = colorIndex(vPce.color());
+                    clashCandidates[ci][nrOfClashCandidates[ci]++] = vPce;
                 }
                 // fill 2nd row clash candidates
                 else if (d <= MAX_LOOKAHEAD_FOR2NDROW_CANDIDATES    // we only look max 4 hops ahead. enough for a queen behind a rook and another rook - we neglect e.g. having 2 queens and 2 rooks in a row... - now 4 as 3 is not enough if bishop behind pawn, where pawn cannot move easily (and is 1+3+1==4...)
@@ -426,8 +663,8 @@ public class Square {
                     if (DEBUGMSG_CLASH_CALCULATION)
                         debugPrint(DEBUGMSG_CLASH_CALCULATION, " +adding " + vPce
                             + " to 2nd row clash candidates with d=" + d + " ");
-                    clash2ndRow.get(colorIndex(vPce.color()))
-                            .add(vPce);
+                    final int ci = colorIndex(vPce.color());
+                    clash2ndRow[ci][nrOfClash2ndRow[ci]++] = vPce;
                 } else if (d < MAX_INTERESTING_NROF_HOPS && d > 0) {              // sort all others into their bucket according to d...
                     if ( board.currentDistanceCalcLimit()>=2  // king pins are not known before about round 2
                             && !board.moveIsNotBlockedByKingPin(vPce.myPiece(), getMyPos())
@@ -450,11 +687,11 @@ public class Square {
                 ) {
                     // a straight pawn that cannot take part in the clash, but move there first...
                     // we need to remember this special case
-                    specialFirstVisitor.set( colorIndex(vPce.color()), vPce);
+                    specialFirstVisitor[colorIndex(vPce.color())] = vPce;
                 }
             }
         for (int ci = 0; ci <= 1; ci++) {
-            clashCandidates.get(ci).sort(VirtualPieceOnSquare::compareTo);
+            sortRange(clashCandidates[ci], 0, nrOfClashCandidates[ci]);
         }
 
         // simulate the clash!
@@ -470,9 +707,7 @@ public class Square {
             //TODO do not skip=continue here for same color as piece on square, but calc if was useful, if an own piece would come closer
             int turnCI = firstTurnCI;  // we alternate, which color makes the 1st move ... and the 3rd, 5th,...
             int exchangeCnt = 0;
-            int[] resultIfTaken = new int[clashCandidates.get(0).size() + clashCandidates.get(1).size()
-                    + clash2ndRow.get(0).size() + clash2ndRow.get(1).size() + 1
-                    + (specialFirstVisitor.get(0) != null || specialFirstVisitor.get(1) != null ? 1 : 0)];
+            final int[] resultIfTaken = clashResultIfTaken;
             resultIfTaken[0] = (isEmpty() || (colorlessPieceType(myPiece().getPieceType())==KING)
                     ? 0   // treat king like empty square - it will never be beaten directly, but move away before
                     : -getvPiece(getPieceID()).getValue());
@@ -496,70 +731,77 @@ public class Square {
                 resultIfTaken[0] += bias;
             }*/
             VirtualPieceOnSquare assassin = null;
-            List<Move> moves = new ArrayList<>();   // moves is only used locally and "fresh" for the only or potentially both loop runs (one for each color), to see if conditions
-                                                    // if there a piece on this square, the clash move order will be stored into clashmoves, as if it's the opponents turn
-            final boolean noOppDefenders = clashCandidates.get(turnCI^1).size() == 0;  // defender meaning opposite color defenders compared to the first assassin (whos turn is assumend at this evaluation round)
-            // initiate clash worklist - to be checked: if this loops runs the 2nd time, several 2nd row pieces are already in the clashCandidates. Could this corrupt the result of the 2nd round?
-            List<List<VirtualPieceOnSquare>> clashCandidatesWorklist = new ArrayList<>(2);
-            for (int ci = 0; ci <= 1; ci++)
-                clashCandidatesWorklist.add(clashCandidates.get(ci).subList(0, clashCandidates.get(ci).size()));
+            int nrOfMoves = 0;   // moves (in clashMovesFrom) are only used locally and "fresh" for the only or potentially both loop runs (one for each color), to see if conditions
+                                 // if there a piece on this square, the clash move order will be stored into clashmoves, as if it's the opponents turn
+            final boolean noOppDefenders = nrOfClashCandidates[turnCI^1] == 0;  // defender meaning opposite color defenders compared to the first assassin (whos turn is assumend at this evaluation round)
+            // initiate clash worklist = clashCandidates[ci][clashWorklistStart[ci]..nrOfClashCandidates[ci]) - to be checked: if this loops runs the 2nd time, several 2nd row pieces are already in the clashCandidates. Could this corrupt the result of the 2nd round?
+            clashWorklistStart[CIWHITE] = 0;
+            clashWorklistStart[CIBLACK] = 0;
             VirtualPieceOnSquare firstAssassin = null;
-            if (specialFirstVisitor.get(turnCI) != null) {
-                firstAssassin = specialFirstVisitor.get(turnCI);
+            if (specialFirstVisitor[turnCI] != null) {
+                firstAssassin = specialFirstVisitor[turnCI];
                 // push into worklist
-                clashCandidatesWorklist.get(turnCI).add(0, firstAssassin);
+                final VirtualPieceOnSquare[] worklist = clashCandidates[turnCI];
+                System.arraycopy(worklist, 0, worklist, 1, nrOfClashCandidates[turnCI]);
+                worklist[0] = firstAssassin;
+                nrOfClashCandidates[turnCI]++;
             }
-            else if (clashCandidatesWorklist.get(turnCI).size()>0)
-                firstAssassin = clashCandidatesWorklist.get(turnCI).get(0);
+            else if (nrOfClashCandidates[turnCI]>0)
+                firstAssassin = clashCandidates[turnCI][0];
             // TODO!!!! - insert straight moving pawn as first "assassin" - although it is not in clashCandidates nor in coverage List... (as it is not covering straight...)
-            while (clashCandidatesWorklist.get(turnCI).size()>0) {
+            while (clashWorklistStart[turnCI] < nrOfClashCandidates[turnCI]) {
                 // take the first vPiece (of whose turn it is) and virtually make the beating move.
-                assassin = clashCandidatesWorklist.get(turnCI).get(0);
+                final VirtualPieceOnSquare[] worklist = clashCandidates[turnCI];
+                final int first = clashWorklistStart[turnCI];
+                final int worklistSize = nrOfClashCandidates[turnCI] - first;
+                assassin = worklist[first];
                 if ( isPawn(assassin.getPieceType())
                         && exchangeCnt==0
                         && isEmpty()
                         && !onSameFile(getMyPos(), assassin.getMyPiecePos())
                 ) {
                     // a pawn cannot come here by beating as the first piece, if the square is empty (or own piece)
-                    if ( clashCandidatesWorklist.get(turnCI).size() > 1 ) {
+                    if ( worklistSize > 1 ) {
                         int swappos = 1;
-                        assassin = clashCandidatesWorklist.get(turnCI).get(1);
+                        assassin = worklist[first + 1];
                         if ( isPawn(assassin.getPieceType())
                                 && !onSameFile(getMyPos(), assassin.getMyPiecePos())
                         ) {  //n is another pawn that cannot beat...
-                            if ( clashCandidatesWorklist.get(turnCI).size() > 2 )
+                            if ( worklistSize > 2 )
                                 swappos = 2;
                             else // nothing here to move to the square!
                                 break;
                         }
-                        assassin = clashCandidatesWorklist.get(turnCI).get(swappos);
-                        clashCandidatesWorklist.get(turnCI).set(swappos, clashCandidatesWorklist.get(turnCI).get(0) );  // [non-pawn]=[pawn at 0]
+                        assassin = worklist[first + swappos];
+                        worklist[first + swappos] = worklist[first];  // [non-pawn]=[pawn at 0]
                     }
                     else
                         break;
                 }
                 // King can only take if there are no more enemies left defending this square + remaining piece
                 if ( isKing(assassin.getPieceType())
-                     && ( clashCandidatesWorklist.get(turnCI^1).size()>0
+                     && ( clashWorklistStart[turnCI^1] < nrOfClashCandidates[turnCI^1]
                           || extraCoverageOfKingPinnedPiece[ colorIndex(assassin.myOpponentsColor())] ) )
                     break;
 
-                clashCandidatesWorklist.set(turnCI,   // emulate pull()  (together with the get above)
-                        clashCandidatesWorklist.get(turnCI).subList(1, clashCandidatesWorklist.get(turnCI).size()));
-                moves.add(new Move(assassin.getMyPiecePos(), getMyPos()));
+                clashWorklistStart[turnCI]++;   // emulate pull()  (together with the get above)
+                clashMovesFrom[nrOfMoves++] = assassin.getMyPiecePos();
                 // pull more indirectly covering pieces into the clash from the "2nd row", which are now fully activated by the up-to-now-clash-moves
                 for (int ci = 0; ci <= 1; ci++) {
-                    for (Iterator<VirtualPieceOnSquare> iterator = clash2ndRow.get(ci).iterator(); iterator.hasNext(); ) {
-                        VirtualPieceOnSquare row2vPce = iterator.next();
+                    final VirtualPieceOnSquare[] row2 = clash2ndRow[ci];
+                    for (int r = 0; r < nrOfClash2ndRow[ci]; r++) {
+                        VirtualPieceOnSquare row2vPce = row2[r];
                         ConditionalDistance row2vPceMinDist = row2vPce.getMinDistanceFromPiece();
-                        if (row2vPceMinDist.movesFulfillConditions(moves) > 0
+                        if (row2vPceMinDist.movesFulfillConditions(clashMovesFrom, nrOfMoves, getMyPos()) > 0
                                 && row2vPceMinDist.distWhenAllConditionsFulfilled(colorFromColorIndex(ci)) == 1
                         ) {
                             debugPrint(DEBUGMSG_CLASH_CALCULATION, " +adding 2nd row clash candidate:");
-                            clashCandidatesWorklist.get(ci).add(row2vPce);
+                            clashCandidates[ci][nrOfClashCandidates[ci]++] = row2vPce;
                             putVPceIntoCoverageList(row2vPce, 1);
-                            iterator.remove();  //could this lead to a bug?: items from clash2ndRow are removed here already in 1st run of loop with CI==0 and put in the clashList - so they will then still be active in the 2nd round, but potentially in a different(wrong) order?
-                            clashCandidatesWorklist.get(ci).sort(VirtualPieceOnSquare::compareTo); //TODO-Bug? prpbably wrong, must be sorted, but only behind the piece that moved first to enable this piece from the second row
+                            //could this lead to a bug?: items from clash2ndRow are removed here already in 1st run of loop with CI==0 and put in the clashList - so they will then still be active in the 2nd round, but potentially in a different(wrong) order?
+                            System.arraycopy(row2, r + 1, row2, r, nrOfClash2ndRow[ci] - r - 1);
+                            nrOfClash2ndRow[ci]--;
+                            sortRange(clashCandidates[ci], clashWorklistStart[ci], nrOfClashCandidates[ci]); //TODO-Bug? prpbably wrong, must be sorted, but only behind the piece that moved first to enable this piece from the second row
                             break;  // if one is found, there cannot be another behind the one that moved that also directly covers now.
                         }
                     }
@@ -574,7 +816,8 @@ public class Square {
             // if 2nd row candidates are still left after the 2nd turn (both colors have started), sort them in as normal late pieces
             if (firstTurnCI==1 || (firstTurnCI==0 && myPieceCIorNeg==1) )
                 for (int ci = 0; ci <= 1; ci++) {
-                    for ( VirtualPieceOnSquare row2vPce: clash2ndRow.get(ci) ){
+                    for (int r = 0; r < nrOfClash2ndRow[ci]; r++) {
+                        final VirtualPieceOnSquare row2vPce = clash2ndRow[ci][r];
                         int d = row2vPce.coverOrAttackDistanceNogofree();
                         if (d<=MAX_INTERESTING_NROF_HOPS) {
                             if (d==2 /* all already fulfilled here:
@@ -582,8 +825,8 @@ public class Square {
                                         && vPce instanceof VirtualSlidingPieceOnSquare
                                         && ((VirtualSlidingPieceOnSquare) vPce).fulfilledConditionsCouldMakeDistIs1() */
                                 &&  row2vPce.getRawMinDistanceFromPiece().piecesMovesMayFulfillAllFromConds(
-                                    coverageOfColorPerHops.get(0).get(CIWHITE),
-                                    coverageOfColorPerHops.get(0).get(CIBLACK) )
+                                    coverage(0, CIWHITE),
+                                    coverage(0, CIBLACK) )
                             ) {
                                 putVPceIntoCoverageList(row2vPce, 1);  // remains in List for 2nd-row
                             }
@@ -593,10 +836,6 @@ public class Square {
                     }
                     //TODO!: bug here: pces from 2nd row list, which are actually in "3rd row" are hre incorrectly sorted into later lists, although they are 2nd row still
                 }
-            for(int h=0; h<MAX_INTERESTING_NROF_HOPS; h++) {
-                coverageOfColorPerHops.get(h).get(CIWHITE).sort(VirtualPieceOnSquare::compareTo); // for white
-                coverageOfColorPerHops.get(h).get(CIBLACK).sort(VirtualPieceOnSquare::compareTo); // for black
-            }
             // if nothing happened - i.e. no direct piece of firstTurnCI is there
             if (exchangeCnt==0) { // nothing happened - original piece stays untouched,
                 for (VirtualPieceOnSquare vPce : vPieces) {
@@ -620,7 +859,7 @@ public class Square {
                             int sqPceTakeEval = resultIfTaken[0];   //(!isEmpty() ? myPiece().getValue() : 0);
                             if ( noOppDefenders ) {  // ... and it is undefended
                                 if ( isEmpty() ) {
-                                    final int coverCount = clashCandidates.get(colorIndex(vPce.color())).size();
+                                    final int coverCount = nrOfClashCandidates[colorIndex(vPce.color())];
                                     if ( coverCount == 0 || ( coverCount == 1 && vPce.coverOrAttackDistance() == 1 ) )
                                         vPce.setRelEval(0);  // it can go there but it would not be defended there
                                     else
@@ -655,11 +894,11 @@ public class Square {
                                 board.internalErrorPrintln("ExchangeCnt==0 but #attackers>1 but [0] is King!? on sq "+this+" for vPve="+vPce+".");
                         }
                         else */
-                        if (clashCandidates.get(oppCI).size() == 1) {
-                            if (isKing(clashCandidates.get(oppCI).get(0).getPieceType()) ) {
+                        if (nrOfClashCandidates[oppCI] == 1) {
+                            if (isKing(clashCandidates[oppCI][0].getPieceType()) ) {
                                 // only a king is attacking my piece
-                                if (clashCandidates.get(colorIndex(vPce.color())).size() == 1
-                                        && clashCandidates.get(colorIndex(vPce.color())).get(0) == vPce ) {
+                                if (nrOfClashCandidates[colorIndex(vPce.color())] == 1
+                                        && clashCandidates[colorIndex(vPce.color())][0] == vPce ) {
                                     // and there is only one of my pieces covering: vPce
                                     // So a same color Piece, being the last one to cover a piece threatened by the king (which cannot
                                     // take now, so exchangeCnt==0, but still a contrib is possible.
@@ -677,8 +916,7 @@ public class Square {
                         }
                     }
                 }
-                clashEvalResult = Integer.compare( clashCandidates.get(0).size(), clashCandidates.get(1).size() );
-                clashMoves = new ArrayList<>(0);
+                clashEvalResult = Integer.compare( nrOfClashCandidates[0], nrOfClashCandidates[1] );
                 // TODO? clean up / correct coverage piece lists
             }
             else {
@@ -703,7 +941,7 @@ public class Square {
 
                 if (myPieceCIorNeg != -1) {
                     clashEvalResult = resultFromHereOn;
-                    clashMoves = moves.subList(0, endOfClash);
+                    setClashMoves(endOfClash);
                 }
                 // derive relEvals for all Pieces from that
                 for (VirtualPieceOnSquare vPce : vPieces) {     // && colorIndex(vPce.color())==firstTurnCI
@@ -718,7 +956,8 @@ public class Square {
                         vPce.setKillable();
                         continue;
                     }
-                    int vPceFoundAt = clashCandidates.get(colorIndex(vPce.color())).indexOf(vPce);
+                    final int vPceCI = colorIndex(vPce.color());
+                    int vPceFoundAt = indexInRange(clashCandidates[vPceCI], 0, nrOfClashCandidates[vPceCI], vPce);
                     if (vPceFoundAt > -1) {
                         int vPceClashIndex = vPceFoundAt * 2 + (colorIndex(vPce.color()) == firstTurnCI ? 0 : 1);  // convert from place in clashCandidates to final clash order
                         int clashContrib = 0;
@@ -727,14 +966,12 @@ public class Square {
                                 && myPieceID != NO_PIECE_ID && vPce.color() == myPiece().color()) // vPce was not part of the active clash fight, but part of the remaining defence, so it could still contribute in covering
                         ) {
                             // TODO: check: usage of this old method might be incorrect in some cases concerning Pieves from the 2ndRow (see above)
-                            int clashResultWithoutVPce = calcClashResultExcludingOne(isWhite(firstTurnCI),
-                                    board.getBoardSquare(getMyPos()).getvPiece(myPieceID),
-                                    clashCandidates.get(CIWHITE),
-                                    clashCandidates.get(CIBLACK),
-                                    vPce,
-                                    new ArrayList<VirtualPieceOnSquare>(0),
-                                    new ArrayList<VirtualPieceOnSquare>(0),
-                                    null);  //Todo: Check if a first move needs to be added, as it could already fulful conditions!
+                            final VirtualPieceOnSquare vPceOnSquare = board.getBoardSquare(getMyPos()).getvPiece(myPieceID);
+                            int clashResultWithoutVPce = cachedClashResultExcludingOne(isWhite(firstTurnCI),
+                                    vPceOnSquare,
+                                    clashCandidates[CIWHITE], nrOfClashCandidates[CIWHITE],
+                                    clashCandidates[CIBLACK], nrOfClashCandidates[CIBLACK],
+                                    vPce, vPceOnSquare);  //Todo: Check if a first move needs to be added, as it could already fulful conditions!
                             clashContrib = clashEvalResult - clashResultWithoutVPce;
                         }
                         if (vPceClashIndex == 0) {
@@ -800,7 +1037,7 @@ public class Square {
                             //  was the last one.
                             // TODO!: is also incorrect if vPce is the one activating a 2nd-row-piece of the opponent
                             int nextOpponentAt = (endOfClash)>>1;
-                            if (nextOpponentAt >= clashCandidates.get(colorIndex(vPce.myOpponentsColor())).size()) {
+                            if (nextOpponentAt >= nrOfClashCandidates[colorIndex(vPce.myOpponentsColor())]) {
                                 // no more opponents left, so yes we can go there - but only after the clash & if
                                 // it actually took place
                                 // let the old_ decide, if it is killable
@@ -811,7 +1048,7 @@ public class Square {
                                     firstAssassin.addRelEval( lastTakerValueDelta );  // add benefit (or fee) for position change
                                  */
                             } else {
-                                VirtualPieceOnSquare nxtOppVPce = clashCandidates.get(colorIndex(vPce.myOpponentsColor())).get(nextOpponentAt);
+                                VirtualPieceOnSquare nxtOppVPce = clashCandidates[colorIndex(vPce.myOpponentsColor())][nextOpponentAt];
                                 if (vPce.myPiece().isWhite() && vPce.getValue() - EVAL_DELTAS_I_CARE_ABOUT
                                             >= -nxtOppVPce.myPiece().getValue()
                                         || !vPce.myPiece().isWhite() && vPce.getValue() + EVAL_DELTAS_I_CARE_ABOUT
@@ -837,8 +1074,8 @@ public class Square {
                         // TODO!! implementation of this case still needed - simulate, if this vPce would come here?
                         // for now set to 0 if no opponents or use old evaluation for the simulation
                         if (endOfClash == exchangeCnt // clash was beaten until the very end
-                                || (clashCandidates.get(colorIndex(vPce.myOpponentsColor())).size() == 0
-                                && clashCandidates.get(colorIndex(vPce.color())).size() > 0)) {  // ... opponent has no defenders, but vPce has own defenders
+                                || (nrOfClashCandidates[colorIndex(vPce.myOpponentsColor())] == 0
+                                && nrOfClashCandidates[colorIndex(vPce.color())] > 0)) {  // ... opponent has no defenders, but vPce has own defenders
                             //|| clashCandidates.get(colorIndex(vPce.color())).size() > clashCandidates.get(colorIndex(!vPce.color())).size())   // ... opponent has no more defenders, so the assassin would be undefended after beating
                             old_updateRelEval(vPce);  //see todo above...
                             //vPce.setRelEval(0);  // no more opponents left, so yes we can co there
@@ -850,24 +1087,29 @@ public class Square {
                 }
             }
         }
+        board.updateSquareAttacksValues(myPos, getAttacksValueForColor(WHITE), getAttacksValueForColor(BLACK));
     }
 
 
     private void clearCoveragePerHopsLists() {
         clashResultsLastUpdate = -1;
-        for(int h=0; h<MAX_INTERESTING_NROF_HOPS; h++) {
-            coverageOfColorPerHops.get(h).get(0).clear(); // for white
-            coverageOfColorPerHops.get(h).get(1).clear(); // for black
+        for(int h=0; h<nrOfCoverage.length; h++) {
+            nrOfCoverage[h][CIWHITE] = 0;
+            nrOfCoverage[h][CIBLACK] = 0;
         }
     }
 
     private void putVPceIntoCoverageList(VirtualPieceOnSquare vPce, int d) {
-        // add this piece to the list of attackers/defenders
+        // add this piece to the list of attackers/defenders - sorted in behind all with a lower or equal value
         debugPrint(DEBUGMSG_CLASH_CALCULATION, " +adding " + vPce + " at d=" + d + " ");
-        coverageOfColorPerHops
-                .get(d)
-                .get(colorIndex(vPce.color()))
-                .add(vPce);
+        final int ci = colorIndex(vPce.color());
+        final int[] pceIds = coveragePceIds[d][ci];
+        int i = nrOfCoverage[d][ci]++;
+        while (i > 0 && vPieces.get(pceIds[i - 1]).compareTo(vPce) > 0) {
+            pceIds[i] = pceIds[i - 1];
+            i--;
+        }
+        pceIds[i] = vPce.getPieceID();
     }
 
 
@@ -883,12 +1125,12 @@ public class Square {
 
         boolean turn = opponentColor( colorOfPieceType(evalVPce.getPieceType()) );
         int currentResult = 0;
-        List<VirtualPieceOnSquare> whites = new ArrayList<>(coverageOfColorPerHops.get(0).get(CIWHITE));
-        List<VirtualPieceOnSquare> blacks = new ArrayList<>(coverageOfColorPerHops.get(0).get(CIBLACK));
-        //whites.addAll(coverageOfColorPerHops.get(1).get(CIWHITE));
-        //blacks.addAll(coverageOfColorPerHops.get(1).get(CIBLACK));
-        List<VirtualPieceOnSquare> whiteOthers = new ArrayList<>(coverageOfColorPerHops.get(1).get(CIWHITE)); //coverageOfColorPerHops.get(2).get(CIWHITE));
-        List<VirtualPieceOnSquare> blackOthers = new ArrayList<>(coverageOfColorPerHops.get(1).get(CIBLACK)); //coverageOfColorPerHops.get(2).get(CIBLACK));
+        List<VirtualPieceOnSquare> whites = coverageCopy(0, 0, CIWHITE);
+        List<VirtualPieceOnSquare> blacks = coverageCopy(1, 0, CIBLACK);
+        //whites.addAll(coverage(1, CIWHITE));
+        //blacks.addAll(coverage(1, CIBLACK));
+        List<VirtualPieceOnSquare> whiteOthers = coverageCopy(2, 1, CIWHITE); //coverage(2, CIWHITE));
+        List<VirtualPieceOnSquare> blackOthers = coverageCopy(3, 1, CIBLACK); //coverage(2, CIBLACK));
         boolean fuzzedWithKingInList = false;
         VirtualPieceOnSquare currentVPceOnSquare = null;
         if (myPieceID!=NO_PIECE_ID) {
@@ -923,18 +1165,16 @@ public class Square {
         }
 
         /*
-        List<VirtualPieceOnSquare> whiteOthers = new ArrayList<>(); //coverageOfColorPerHops.get(2).get(CIWHITE));
-        List<VirtualPieceOnSquare> blackOthers = new ArrayList<>(); //coverageOfColorPerHops.get(2).get(CIBLACK));
+        List<VirtualPieceOnSquare> whiteOthers = new ArrayList<>(); //coverage(2, CIWHITE));
+        List<VirtualPieceOnSquare> blackOthers = new ArrayList<>(); //coverage(2, CIBLACK));
         // TODO-refactor: this code piece is duplicated
         for(int h = 2; h< min(4, MAX_INTERESTING_NROF_HOPS); h++) {
-            whiteOthers.addAll(coverageOfColorPerHops
-                    .get(h).get(CIWHITE)
+            whiteOthers.addAll(coverage(h, CIWHITE)
                     .stream()
                     .filter(VirtualPieceOnSquare::isConditional )
                     .collect(Collectors.toList() )
             );
-            blackOthers.addAll((Collection<? extends VirtualPieceOnSquare>) coverageOfColorPerHops
-                    .get(h).get(CIBLACK)
+            blackOthers.addAll((Collection<? extends VirtualPieceOnSquare>) coverage(h, CIBLACK)
                     .stream()
                     .filter(VirtualPieceOnSquare::isConditional )
                     .collect(Collectors.toList() )
@@ -950,8 +1190,8 @@ public class Square {
             return;
         }
 
-        List<Move> moves = new ArrayList<>();
-        moves.add(new Move( evalVPce.getMyPiecePos(), getMyPos()));
+        MoveList moves = new MoveList();
+        moves.add( evalVPce.getMyPiecePos(), getMyPos());
 
         /* leave this out totally - calculate "as if" the pawn could have moved there. otherwise it gets an incorrect relEval, assuming that anather pawn (firstmover) has already moved, which is not the case at time of move selection...
         if ( isEmpty()
@@ -986,7 +1226,12 @@ public class Square {
                         whiteOthers, blackOthers,
                         moves);
         } else */
-        currentResult += calcClashResultExcludingOne(turn,evalVPce,   // the vPce itself goes first
+        if (whiteOthers.isEmpty() && blackOthers.isEmpty())
+            currentResult += cachedClashResultExcludingOne(turn,evalVPce,   // the vPce itself goes first
+                    whites, blacks, evalVPce,    // and is thus excluded from the rest of the clash
+                    moves);
+        else
+            currentResult += calcClashResultExcludingOne(turn,evalVPce,   // the vPce itself goes first
                     whites, blacks, evalVPce,    // and is thus excluded from the rest of the clash
                     whiteOthers, blackOthers,
                     moves);
@@ -1303,9 +1548,64 @@ public class Square {
         }
     }
 
+    /**
+     * builds the fingerprint of everything the futureClashResults depend on: the piece here, the direct, 2nd row and
+     * hop-2 coverage of both colors in list order - each with value and position, for the 2nd row also the
+     * conditions and for hop 2 whether it is used as additional attacker - and the extra coverage by king-pinned
+     * pieces. Side to move is not part of it, the simulation always starts with the opponent of the piece here.
+     * @return true if the fingerprint equals the one of the last calculation (and its results still exist)
+     */
+    private boolean futureClashInputsUnchanged(final VirtualPieceOnSquare currentVPceOnSquare) {
+        nextFutureClashFingerprintLen = 0;
+        addToFutureClashFingerprint(MAX_INTERESTING_NROF_HOPS);
+        addToFutureClashFingerprint(myPieceID);
+        addToFutureClashFingerprint(currentVPceOnSquare.getValue());
+        addToFutureClashFingerprint((extraCoverageOfKingPinnedPiece[CIWHITE] ? 1 : 0)
+                | (extraCoverageOfKingPinnedPiece[CIBLACK] ? 2 : 0));
+        for (int h = 0; h <= 2; h++) {
+            for (int ci = 0; ci <= 1; ci++) {
+                addToFutureClashFingerprint(nrOfCoverage[h][ci]);
+                for (VirtualPieceOnSquare vPce : coverage(h, ci)) {
+                    addToFutureClashFingerprint(vPce.getPieceID());
+                    addToFutureClashFingerprint(vPce.getValue());
+                    addToFutureClashFingerprint(vPce.getMyPiecePos());
+                    if (h == 1) {
+                        ConditionalDistance minDist = vPce.getMinDistanceFromPiece();
+                        addToFutureClashFingerprint(minDist.dist());
+                        addToFutureClashFingerprint(minDist.nrOfConditions());
+                        for (int c = 0; c < minDist.nrOfConditions(); c++) {
+                            MoveCondition cond = minDist.getConds(c);
+                            addToFutureClashFingerprint(cond.from());
+                            addToFutureClashFingerprint(cond.to());
+                            addToFutureClashFingerprint(cond.colIndexCond);
+                        }
+                    }
+                    else if (h == 2)
+                        addToFutureClashFingerprint(vPce.isSuitableAdditionalAttacker() ? 1 : 0);
+                }
+            }
+        }
+        final boolean unchanged = futureClashResults != null
+                && Arrays.equals(futureClashFingerprint, 0, futureClashFingerprintLen,
+                                 nextFutureClashFingerprint, 0, nextFutureClashFingerprintLen);
+        // keep the new one as the current fingerprint
+        final int[] prev = futureClashFingerprint;
+        futureClashFingerprint = nextFutureClashFingerprint;
+        futureClashFingerprintLen = nextFutureClashFingerprintLen;
+        nextFutureClashFingerprint = prev;
+        return unchanged;
+    }
+
+    private void addToFutureClashFingerprint(final int v) {
+        if (nextFutureClashFingerprintLen == nextFutureClashFingerprint.length)
+            nextFutureClashFingerprint = Arrays.copyOf(nextFutureClashFingerprint, nextFutureClashFingerprintLen << 1);
+        nextFutureClashFingerprint[nextFutureClashFingerprintLen++] = v;
+    }
+
     void calcFutureClashEval() {
         // note: clash-lists must already be updated
-        // TODO - make every calculation here change-dependent, not reset and recalc all...
+        // The futureClashResults are only recalculated if their inputs changed, the chances are given out every time
+        // (they are reset for every position and depend on much more than the clash).
         if (isEmpty()  // bonus for taking control of empty squares is treated elsewhere
                // removed with 47v1 + v3ff, now slightly better, but partly slighly worse...:  || isKing(myPieceType())   // king is also treated differently
                // 47v2 tries intermediate, but is worse than v1: || ( isKing(myPieceType()) && myPiece().color() == board.getTurnCol() )
@@ -1321,19 +1621,26 @@ public class Square {
         boolean turn = initialTurn;
 
         final VirtualPieceOnSquare currentVPceOnSquare = getvPiece(myPieceID);
-        List<VirtualPieceOnSquare> whites = new ArrayList<>(coverageOfColorPerHops.get(0).get(CIWHITE));
-        List<VirtualPieceOnSquare> blacks = new ArrayList<>(coverageOfColorPerHops.get(0).get(CIBLACK));
-        // Todo!!: check, if here the get(1) should not better get into whiteOthers in the clash-call below!!
-        List<VirtualPieceOnSquare> whiteOthers = new ArrayList<>(coverageOfColorPerHops.get(1).get(CIWHITE)); //coverageOfColorPerHops.get(2).get(CIWHITE));
-        List<VirtualPieceOnSquare> blackOthers = new ArrayList<>(coverageOfColorPerHops.get(1).get(CIBLACK)); //coverageOfColorPerHops.get(2).get(CIBLACK));
-        //whites.addAll(coverageOfColorPerHops.get(1).get(CIWHITE));
-        //blacks.addAll(coverageOfColorPerHops.get(1).get(CIBLACK));
-        List<VirtualPieceOnSquare> whiteMoreAttackers = coverageOfColorPerHops.get(2).get(CIWHITE);
-        List<VirtualPieceOnSquare> blackMoreAttackers = coverageOfColorPerHops.get(2).get(CIBLACK);
-        futureClashResults = new int[Math.max(MAX_INTERESTING_NROF_HOPS + 2,
-                (Math.max(coverageOfColorPerHops.get(2).get(CIWHITE).size(),
-                        coverageOfColorPerHops.get(2).get(CIBLACK).size())
-                        * 2 + 1))];
+        final boolean recalcResults = !futureClashInputsUnchanged(currentVPceOnSquare);
+        List<VirtualPieceOnSquare> whites = null;
+        List<VirtualPieceOnSquare> blacks = null;
+        List<VirtualPieceOnSquare> whiteOthers = null;
+        List<VirtualPieceOnSquare> blackOthers = null;
+        if (recalcResults) {
+            whites = coverageCopy(0, 0, CIWHITE);
+            blacks = coverageCopy(1, 0, CIBLACK);
+            // Todo!!: check, if here the coverage(1) should not better get into whiteOthers in the clash-call below!!
+            whiteOthers = coverageCopy(2, 1, CIWHITE); //coverage(2, CIWHITE));
+            blackOthers = coverageCopy(3, 1, CIBLACK); //coverage(2, CIBLACK));
+            //whites.addAll(coverage(1, CIWHITE));
+            //blacks.addAll(coverage(1, CIBLACK));
+            futureClashResults = new int[Math.max(MAX_INTERESTING_NROF_HOPS + 2,
+                    (Math.max(nrOfCoverage[2][CIWHITE],
+                            nrOfCoverage[2][CIBLACK])
+                            * 2 + 1))];
+        }
+        List<VirtualPieceOnSquare> whiteMoreAttackers = coverage(2, CIWHITE);
+        List<VirtualPieceOnSquare> blackMoreAttackers = coverage(2, CIBLACK);
         int nr = 0;
         int bNext = 0;
         int wNext = 0;
@@ -1369,8 +1676,10 @@ public class Square {
                     }
                     additionalAttacker = whiteMoreAttackers.get(wNext);
                 }
-                whites.add(additionalAttacker);
-                whites.sort(VirtualPieceOnSquare::compareTo);
+                if (recalcResults) {
+                    whites.add(additionalAttacker);
+                    whites.sort(VirtualPieceOnSquare::compareTo);
+                }
                 wNext++;
             } else { // blacks turn
                 debugPrint(DEBUGMSG_FUTURE_CLASHES, "Black adds " + blackMoreAttackers.get(bNext));
@@ -1386,17 +1695,20 @@ public class Square {
                     }
                     additionalAttacker = blackMoreAttackers.get(bNext);
                 }
-                blacks.add(additionalAttacker);
-                blacks.sort(VirtualPieceOnSquare::compareTo);
+                if (recalcResults) {
+                    blacks.add(additionalAttacker);
+                    blacks.sort(VirtualPieceOnSquare::compareTo);
+                }
                 bNext++;
             }
-            // main calculation
-            futureClashResults[nr] = calcClashResultExcludingOne(
-                    initialTurn, currentVPceOnSquare,
-                    whites, blacks,
-                    null,
-                    whiteOthers, blackOthers, null);
-                   // whiteMoreAttackers, blackMoreAttackers, null);
+            // main calculation (otherwise the result from the last time is still valid)
+            if (recalcResults)
+                futureClashResults[nr] = calcClashResultExcludingOne(
+                        initialTurn, currentVPceOnSquare,
+                        whites, blacks,
+                        null,
+                        whiteOthers, blackOthers, null);
+                       // whiteMoreAttackers, blackMoreAttackers, null);
 
             // add new chances
             int benefit = 0;
@@ -1586,10 +1898,10 @@ public class Square {
         // add additional future chances
         int hopDistance = 3;  // 0-2 has already been considered in calculation above
         boolean attackerColor = opponentColor(currentVPceOnSquare.color());
-        while (hopDistance < coverageOfColorPerHops.size()) {
+        while (hopDistance < nrOfCoverage.length) {
             final List<VirtualPieceOnSquare> moreAttackers = isWhite(attackerColor)
-                    ? coverageOfColorPerHops.get(hopDistance).get(CIWHITE)
-                    : coverageOfColorPerHops.get(hopDistance).get(CIBLACK);
+                    ? coverage(hopDistance, CIWHITE)
+                    : coverage(hopDistance, CIBLACK);
             for (VirtualPieceOnSquare additionalFutureAttacker : moreAttackers) {
                 // still a little attacking chance improvement if a piece comes closer to an enemy, right?
                 int futureLevel = additionalFutureAttacker.getAttackingFutureLevelPlusOne() - 1
@@ -2000,8 +2312,10 @@ public class Square {
                         ConditionalDistance pinner2kingRmd = pinnerAtKingPos.getRawMinDistanceFromPiece();
                         if (pinner2kingRmd.dist() != 2 || !pinner2kingRmd.isUnconditional())
                             continue;  // not able to give check in 1 move
-                        for (Move checkMove : pinnerAtKingPos.getFirstMovesWithReasonableShortestWayToHere()) {
-                            if (isBetweenFromAndTo(getMyPos(), checkMove.to(), kingPos)) {
+                        for (long checkMoveTargets = pinnerAtKingPos.getFirstMoveTargetsWithReasonableShortestWayToHere();
+                             checkMoveTargets != 0L; checkMoveTargets &= checkMoveTargets - 1) {
+                            final int checkMoveTo = Long.numberOfTrailingZeros(checkMoveTargets);
+                            if (RayAttacks.isBetween(getMyPos(), checkMoveTo, kingPos)) {
                                 //TODO!: if pinner on checkMove.to() will be uncovered, but vPce covers it with its move, then there is no danger
                                 int danger = (abs(vPce.getValue()) - abs((pinner.getValue() >> 1))) >> 1;
                                 if (danger < EVAL_TENTH)
@@ -2017,7 +2331,7 @@ public class Square {
                                         debugPrintln(DEBUGMSG_MOVEEVAL, " Benefit for coming closer to possible kin-pin "
                                                 + (-(danger >> 1)) + "@" + pinFutureLevel + " for " + (pinner.getRawMinDistanceFromPiece().oneLastMoveOrigin())
                                                 + " via " + squareName(getMyPos()) + ".");
-                                    board.getBoardSquare(checkMove.to())
+                                    board.getBoardSquare(checkMoveTo)
                                             .getvPiece(pinner.getPieceID())
                                             .addChance(-(danger >> 1), pinFutureLevel, getMyPos() ); // award possible pinner to come closer
                                 }
@@ -2176,7 +2490,7 @@ public class Square {
                         && isSlidingPieceType(vPce.getPieceType())
                         && vPce.color() != myPiece().color()
                         && rmd.dist() == 2
-                        && isBetweenFromAndTo( fromCond, vPce.getMyPiecePos(), getMyPos())
+                        && RayAttacks.isBetween( fromCond, vPce.getMyPiecePos(), getMyPos())
                         && vPce.color() == board.getPieceAt(fromCond).color()
                         && rmd.hasExactlyOneFromToAnywhereCondition()
                 ) {
@@ -2193,9 +2507,9 @@ public class Square {
     }
 
     private int lowestReasonableExtraThreatFrom(boolean col) {
-        if (coverageOfColorPerHops.get(2).get(colorIndex(col)).size()<=0)
+        if (nrOfCoverage[2][colorIndex(col)]<=0)
             return 0;
-        VirtualPieceOnSquare vPce = coverageOfColorPerHops.get(2).get(colorIndex(col)).get(0);
+        VirtualPieceOnSquare vPce = coverage(2, colorIndex(col)).get(0);
         return vPce.getRelEvalOrZero();
     }
 
@@ -2552,7 +2866,7 @@ public class Square {
                     && checkerRmdToKing.hasExactlyOneFromToAnywhereCondition()
             ) {
                 fromCond = checkerRmdToKing.getFromCond(0);  // will be/stay ANYWHERE if it is not a fromCond
-                if ( isBetweenFromAndTo(fromCond, checkerAtKing.getMyPiecePos(), getMyPos()) ) {  // probably unnecessary, but to be sure it's a straight line
+                if ( RayAttacks.isBetween(fromCond, checkerAtKing.getMyPiecePos(), getMyPos()) ) {  // probably unnecessary, but to be sure it's a straight line
                     if ((DEBUGMSG_MOVEEVAL))
                         debugPrint(DEBUGMSG_MOVEEVAL, " + Abzugschach possible for " + checkerAtKing + " by " + board.getPieceAt(fromCond)
                                 +". "); //+ " on " + board.getBoardFEN() + ".");
@@ -2692,7 +3006,7 @@ public class Square {
                     }
                     // or if we have an abzugCoverer and checker did not again move in the way
                     else if ( abzugCoverers.get(nDirIndex) != null
-                            && !isBetweenFromAndTo(checkFromPos, abzugCoverers.get(nDirIndex).getMyPiecePos(), nPos) ) {
+                            && !RayAttacks.isBetween(checkFromPos, abzugCoverers.get(nDirIndex).getMyPiecePos(), nPos) ) {
                         nowCovered = true;
                     }
 
@@ -3419,13 +3733,13 @@ public class Square {
 
     public int getAttacksValueForColor(final boolean color) {
         return countDirectAttacksWithColor(color)
-                + ( (int)((coverageOfColorPerHops.get(2).get(colorIndex(color)).size()))/2 );
+                + ( (int)((nrOfCoverage[2][colorIndex(color)]))/2 );
     }
 
     public int getFutureDangerValueThroughColor(final boolean color) {
-        int res = 0;  // coverageOfColorPerHops.get(1).get(colorIndex(color)).size();  // is 2nd row relevant here?
-        res += coverageOfColorPerHops.get(2).get(colorIndex(color)).size() << 1;   // the 1-move away attackers *2
-        res += (coverageOfColorPerHops.get(3).get(colorIndex(color)).size()+1)>>1; // the 2-move aways /2
+        int res = 0;  // nrOfCoverage[1][colorIndex(color)];  // is 2nd row relevant here?
+        res += nrOfCoverage[2][colorIndex(color)] << 1;   // the 1-move away attackers *2
+        res += (nrOfCoverage[3][colorIndex(color)]+1)>>1; // the 2-move aways /2
         return res;
     }
 
@@ -3439,21 +3753,21 @@ public class Square {
                && countDirectAttacksWithout2ndRowWithColor(acol) == 0  // no really direct attacks
                && ( countDirectAttacksWithColor(acol) == 0
                     || (countDirectAttacksWithColor(acol) == 1    // no x-ray through king
-                        && coverageOfColorPerHops.get(1).get(colorIndex(acol)).get(0).getRawMinDistanceFromPiece()
+                        && coverage(1, colorIndex(acol)).get(0).getRawMinDistanceFromPiece()
                             .doesNotHaveThisSingleFromToAnywhereCondition(board.getKingPos(kingColor)) ) );
     }
 
     public int countDirectAttacksWithColor(final boolean color) {
-        return coverageOfColorPerHops.get(0).get(colorIndex(color)).size()
-                + coverageOfColorPerHops.get(1).get(colorIndex(color)).size();
+        return nrOfCoverage[0][colorIndex(color)]
+                + nrOfCoverage[1][colorIndex(color)];
     }
 
     public int countFutureAttacksWithColor(final boolean color, final int atDist) {
-        return coverageOfColorPerHops.get(atDist).get(colorIndex(color)).size();
+        return nrOfCoverage[atDist][colorIndex(color)];
     }
 
     public int countDirectAttacksWithout2ndRowWithColor(final boolean color) {
-        return coverageOfColorPerHops.get(0).get(colorIndex(color)).size();
+        return nrOfCoverage[0][colorIndex(color)];
     }
 
     int myPieceType() {
@@ -3509,34 +3823,32 @@ public class Square {
     }
 
     ChessPiece lastReasonableTaker() {
-        if (clashMoves == null || clashMoves.size() <= 0)
+        if (clashMoves.isEmpty())
             return null;
-        return board.getPieceAt(clashMoves.get(clashMoves.size() - 1).from());
+        return board.getPieceAt(clashMoves.from(clashMoves.size() - 1));
     }
 
     public boolean isPceTypeOfFirstClashMove(int pceType) {
-        if (clashMoves==null || clashMoves.size()==0)
+        if (clashMoves.isEmpty())
             return false;
-        return pceType == board.getPieceTypeAt(clashMoves.get(0).from() );
+        return pceType == board.getPieceTypeAt(clashMoves.from(0) );
     }
 
     public boolean clashWinsTempo() {
-        if (clashMoves==null || clashMoves.size()==0)
+        if (clashMoves.isEmpty())
             return false;
-        return board.getPieceAt(clashMoves.get(0).from()).color() != lastTakersColor();
+        return board.getPieceAt(clashMoves.from(0)).color() != lastTakersColor();
     }
 
     public boolean isPartOfClash(int pceId) {
-        if (clashMoves==null || clashMoves.size()==0)
-            return false;
-        return clashMoves.stream().anyMatch(m -> board.getPieceIdAt(m.from()) == pceId );
+        for (int i = 0; i < clashMoves.size(); i++)
+            if (board.getPieceIdAt(clashMoves.from(i)) == pceId)
+                return true;
+        return false;
     }
 
     public int reasonableClashLength() {
-        if (clashMoves==null)
-            return 0;
-        else
-            return clashMoves.size();
+        return clashMoves.size();
     }
 
 
@@ -3568,10 +3880,10 @@ public class Square {
                     && evalIsOkForColByMin( vPce.getRelEvalOrZero(), color ) )
                 return true;
         // then all others (already in the coverage list)
-        for( VirtualPieceOnSquare vPce : coverageOfColorPerHops.get(0).get(ci) )
+        for( VirtualPieceOnSquare vPce : coverage(0, ci) )
             if ( evalIsOkForColByMin( vPce.getRelEvalOrZero(), color ) )
                 return true;
-        for( VirtualPieceOnSquare vPce : coverageOfColorPerHops.get(1).get(ci) )
+        for( VirtualPieceOnSquare vPce : coverage(1, ci) )
             if ( evalIsOkForColByMin( vPce.getRelEvalOrZero(), color ) )
                 return true;
         return false;
@@ -3581,7 +3893,7 @@ public class Square {
     public List<ChessPiece> directAttackersWithout2ndRowWithColor(boolean color) {
         List<ChessPiece> attackers = new ArrayList<>();
         // no 2nd row: for (int i=0; i<=1; i++) {
-        for (VirtualPieceOnSquare vPce : coverageOfColorPerHops.get(0).get(colorIndex(color)))
+        for (VirtualPieceOnSquare vPce : coverage(0, colorIndex(color)))
             attackers.add(vPce.myPiece());
         //}
         return attackers;
@@ -3589,18 +3901,18 @@ public class Square {
 
     public void markKingAreaAttackersWithColor(boolean color) {
         for (int i=0; i<=2; i++) {
-            for (VirtualPieceOnSquare vPce : coverageOfColorPerHops.get(i).get(colorIndex(color))) {
+            for (VirtualPieceOnSquare vPce : coverage(i, colorIndex(color))) {
                 vPce.myPiece().setKingAreaAttacker();
             }
         }
     }
 
     public List<VirtualPieceOnSquare> directAttackVPcesWithout2ndRowWithColor(final boolean color) {
-        return coverageOfColorPerHops.get(0).get(colorIndex(color));
+        return coverage(0, colorIndex(color));
     }
 
     public List<VirtualPieceOnSquare> futureAttackVPcesWithColor(final int dist, final boolean color) {
-        return coverageOfColorPerHops.get(dist).get(colorIndex(color));
+        return coverage(dist, colorIndex(color));
     }
 
     public void resetBlocksChecks() {
@@ -3728,8 +4040,11 @@ public class Square {
 
 
     public void avoidRunningIntoForks() {
+        final AttackIndex attackIndex = board.getAttackIndex();
         for ( VirtualPieceOnSquare vPce : getVPieces() ) {
             if (vPce == null
+                    // no opponent can reach here in 2 moves without NoGo, so there is no attacker below
+                    || !attackIndex.isReachableAt(colorIndex(vPce.myOpponentsColor()), 2, getMyPos())
                     || vPce.getMinDistanceFromPiece().dist()!=1
                     || !vPce.getMinDistanceFromPiece().isUnconditional()
                     || !evalIsOkForColByMin(vPce.getRelEvalOrZero() , vPce.color() ) )
@@ -3921,7 +4236,8 @@ public class Square {
 
     public void avoidForks() {
         ChessPiece pce = myPiece();
-        if (pce == null)
+        if (pce == null
+                || !board.getAttackIndex().isAttackedAt(colorIndex(pce.color())^1, 2, getMyPos()) ) // no opponent can attack here in one move
             return;
 
         // run over all vPces that can go here directly
@@ -4040,12 +4356,12 @@ public class Square {
         // Todo!: better Conds needed to express moving away from an axis. Then this should return
         //  the vPce, to enable the the aller to build sich a more pecise condition.
         int fromCond = NOWHERE;
-        List<VirtualPieceOnSquare> whites = coverageOfColorPerHops.get(0).get(CIWHITE);
-        List<VirtualPieceOnSquare> blacks = coverageOfColorPerHops.get(0).get(CIBLACK);
+        List<VirtualPieceOnSquare> whites = coverage(0, CIWHITE);
+        List<VirtualPieceOnSquare> blacks = coverage(0, CIBLACK);
         List<VirtualPieceOnSquare> whiteOthers = null;
         List<VirtualPieceOnSquare> blackOthers = null;
-        List<Move> moves = new ArrayList<>();
-        moves.add(new Move( vPce.getMyPiecePos(), getMyPos()));
+        MoveList moves = new MoveList();
+        moves.add( vPce.getMyPiecePos(), getMyPos());
         for (VirtualPieceOnSquare vPceToMoveAway : vPieces) {
             if ( vPceToMoveAway == null  // contained in color comparison: || vPceToMoveAway == vPce
                     ||  vPceToMoveAway.color() == color   // Todo: check if also adding same color could be regarded as an enabing condition, but then a to condition of same color
@@ -4056,8 +4372,8 @@ public class Square {
                 continue;
             if (fromCond==NOWHERE) {
                 // init only once at the first time, but nnot before the for loop, as it might never be necessary
-                whiteOthers = new ArrayList<>(coverageOfColorPerHops.get(1).get(CIWHITE));
-                blackOthers = new ArrayList<>(coverageOfColorPerHops.get(1).get(CIBLACK));
+                whiteOthers = new ArrayList<>(coverage(1, CIWHITE));
+                blackOthers = new ArrayList<>(coverage(1, CIBLACK));
             }
             int resWithout = calcClashResultExcludingOne(opponentColor(color), vPce, whites, blacks,
                     vPceToMoveAway, whiteOthers, blackOthers, moves );
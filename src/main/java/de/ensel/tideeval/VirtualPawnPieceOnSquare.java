@@ -29,6 +29,25 @@ import static java.lang.Math.abs;
 
 public class VirtualPawnPieceOnSquare extends VirtualOneHopPieceOnSquare {
 
+    /**
+     * [colorIndex][pos] -> bitmap of all squares a pawn of that color can go to in one move from pos
+     * (straight, 2 squares from the start rank and both taking directions), see RayAttacks for the bitmap layout.
+     */
+    private static final long[][] PAWN_SUCCESSORS = new long[2][NR_SQUARES];
+
+    static {
+        for (int ci = 0; ci <= 1; ci++) {
+            final boolean col = ci == CIWHITE ? WHITE : BLACK;
+            for (int pos = 0; pos < NR_SQUARES; pos++) {
+                long successors = 0L;
+                for (int dir : getAllPawnDirs(col, rankOf(pos)))
+                    if (neighbourSquareExistsInDirFromPos(dir, pos))
+                        successors |= RayAttacks.posBit(pos + dir);
+                PAWN_SUCCESSORS[ci][pos] = successors;
+            }
+        }
+    }
+
     public VirtualPawnPieceOnSquare(ChessBoard myChessBoard, int newPceID, int pceType, int myPos) {
         super(myChessBoard, newPceID, pceType, myPos);
     }
@@ -407,15 +426,36 @@ public class VirtualPawnPieceOnSquare extends VirtualOneHopPieceOnSquare {
 */
 
 
+    /**
+     * recalcs all squares of the forward cone that are affected by a change here in one forward sweep.
+     * A pawn square only depends on squares behind it, so going forward rank by rank (and picking the
+     * squares to recalc from the PAWN_SUCCESSORS table) finalizes every square with one single recalc.
+     * Only changes that would have to wait for a higher distance calc limit are qued as usual.
+     */
     protected void doPropagatePawnDistanceToNeighbours() {
-        final int[] neighbourDirs = getAllPawnDirs(myPiece().color(), rankOf(myPos));
-        for (int i = 0; i < neighbourDirs.length; i++) {
-            if ( //neighbourUpdated[i]) {  //neighbourSquareExistsInDirFromPos(neighbourDir, myPos)) {
-                neighbourSquareExistsInDirFromPos(neighbourDirs[i], myPos)) {
-                VirtualPawnPieceOnSquare n = (VirtualPawnPieceOnSquare) board
-                        .getBoardSquare(myPos+neighbourDirs[i]).getvPiece(myPceID);
-                n.recalcAndPropagatePawnDistance();
+        final int ci = colorIndex(color());
+        final ChessPiece pawn = myPiece();
+        long toRecalc = PAWN_SUCCESSORS[ci][myPos];
+        while (toRecalc != 0) {
+            // forward is towards lower positions for white, towards higher for black,
+            // so take the square that is the furthest back of all open ones
+            final int pos = isWhite(color()) ? 63 - Long.numberOfLeadingZeros(toRecalc)
+                                             : Long.numberOfTrailingZeros(toRecalc);
+            toRecalc &= ~RayAttacks.posBit(pos);
+            VirtualPawnPieceOnSquare n = (VirtualPawnPieceOnSquare) board.getBoardSquare(pos).getvPiece(myPceID);
+            if ( !n.recalcAllPawnDists() && n.rawMinDistance.dist() != 0 )
+                continue;
+            int quePriority = n.minDistanceSuggestionTo1HopNeighbour().dist();
+            if (quePriority==INFINITE_DISTANCE)
+                quePriority=0;  // resets/unreachables must be propagated immediately
+            if (pawn.queIndexIsDueNow(quePriority)) {
+                pawn.countPropagation(quePriority);
+                toRecalc |= PAWN_SUCCESSORS[ci][pos];
             }
+            else
+                pawn.quePropagation(
+                        quePriority,
+                        n::doPropagatePawnDistanceToNeighbours);
         }
     }
 
@@ -64,7 +64,8 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
     private Set<VirtualPieceOnSquare> directAttackVPcs;
     private Set<VirtualPieceOnSquare> shortestReasonableUnconditionedPredecessors;
     private Set<VirtualPieceOnSquare> shortestReasonablePredecessors;
-    private Set<Move> firstMovesWithReasonableShortestWayToHere;
+    private long firstMoveTargetsWithReasonableShortestWayToHere;  // bitmap of the to-squares of these 1st moves, see RayAttacks
+    private boolean firstMoveTargetsRemembered = false;
     private int mobilityFromHere;    // a value, somehow summing mobilty up
     private int mobilityMapFromHere; // a 64-bitmap, one bit for each square
 
@@ -195,7 +196,8 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
         directAttackVPcs = calcDirectAttackVPcs();
         shortestReasonableUnconditionedPredecessors = calcShortestReasonableUnconditionedPredecessors();
         shortestReasonablePredecessors = calcShortestReasonablePredecessors();
-        firstMovesWithReasonableShortestWayToHere = calcFirstMovesWithReasonableShortestWayToHere();
+        firstMoveTargetsWithReasonableShortestWayToHere = calcFirstMoveTargetsWithReasonableShortestWayToHere();
+        firstMoveTargetsRemembered = true;
     }
 
     /**
@@ -236,29 +238,30 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
     abstract Set<VirtualPieceOnSquare> calcShortestReasonablePredecessors();
 
     /**
-     * calc which 1st moves of my piece lead to here (on shortest ways) - obeying NoGos
-     * @return */
-    public Set<Move> getFirstMovesWithReasonableShortestWayToHere() {
-        if (firstMovesWithReasonableShortestWayToHere !=null)
-            return firstMovesWithReasonableShortestWayToHere;
-        return calcFirstMovesWithReasonableShortestWayToHere();
+     * calc which 1st moves of my piece lead to here (on shortest ways) - obeying NoGos.
+     * All 1st moves start at my piece's position, so they are just given by their to-squares.
+     * @return bitmap of the to-squares of these 1st moves (bit n for position n, see RayAttacks) */
+    long getFirstMoveTargetsWithReasonableShortestWayToHere() {
+        if (firstMoveTargetsRemembered)
+            return firstMoveTargetsWithReasonableShortestWayToHere;
+        return calcFirstMoveTargetsWithReasonableShortestWayToHere();
     }
 
     /**
      * calc which 1st moves of my piece lead to here (on shortest ways) - obeying NoGos
-     * @return */
-    public Set<Move> calcFirstMovesWithReasonableShortestWayToHere() {
+     * @return bitmap of the to-squares of these 1st moves */
+    long calcFirstMoveTargetsWithReasonableShortestWayToHere() {
         final boolean localDebug = false; //DEBUGMSG_MOVEEVAL;
         debugPrint(localDebug, "getFirstMoveto:"+this.toString() + ": ");
         if (!getRawMinDistanceFromPiece().distIsNormal()) {
-            return new HashSet<>();
+            return 0L;
         }
-        Set<Move> res = new HashSet<>(8);
+        long res = 0L;
         if ( getRawMinDistanceFromPiece().dist()==1
                 && !getRawMinDistanceFromPiece().hasNoGo() //!getMinDistanceFromPiece().hasNoGo()
               /*  || ( getRawMinDistanceFromPiece().dist()==2
                       && getRawMinDistanceFromPiece().nrOfConditions()==1) */ ) {
-            res.add(new Move(getMyPiecePos(), myPos));  // a first "clean" move found
+            res = RayAttacks.posBit(myPos);  // a first "clean" move found
             if (localDebug)
                 debugPrintln(localDebug, " found 1st move from "+ squareName(myPiece().getPos())
                     + " to " + squareName(myPos) + ": ");
@@ -273,23 +276,18 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
                             .sorted(Comparator.naturalOrder())
                             .collect(Collectors.toList()).toArray()));
             for ( VirtualPieceOnSquare vPce : getShortestReasonableUnconditionedPredecessors() )  // getPredecessors() ) //
-                if ( vPce!=this ) {
-                    Set<Move> firstMovesToHere = vPce.getFirstMovesWithReasonableShortestWayToHere();
-                    res.addAll(firstMovesToHere );
-                }
+                if ( vPce!=this )
+                    res |= vPce.getFirstMoveTargetsWithReasonableShortestWayToHere();
         }
         return res;
     }
 
-    private Set<Move> getMoveOrigin(VirtualPieceOnSquare vPce) {
-        Set<Move> firstMovesToHere = vPce.getFirstMovesWithReasonableShortestWayToHere();
-        if (firstMovesToHere==null) {
-            firstMovesToHere = new HashSet<>();
-            if ( rawMinDistance.dist()==1
-                    || ( rawMinDistance.dist()==2 && !(rawMinDistance.nrOfConditions()==1) ) )
-                firstMovesToHere.add(new Move(myPiece().getPos(), myPos));  // a first "clean" move found
-        }
-        return firstMovesToHere;
+    /**
+     * adds the 1st move to toPos to the remembered 1st moves, if there are none
+     */
+    void addFirstMoveTargetIfNone(final int toPos) {
+        if (firstMoveTargetsRemembered && firstMoveTargetsWithReasonableShortestWayToHere == 0L)
+            firstMoveTargetsWithReasonableShortestWayToHere = RayAttacks.posBit(toPos);
     }
 
     /**
@@ -489,6 +487,7 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
     }
 
     protected void resetDistances() {
+        board.getMetrics().countVPceReset();
         setLatestChangeToNow();
         if (rawMinDistance==null)
             rawMinDistance = new ConditionalDistance(this);
@@ -695,6 +694,17 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
         return rawMinDistance;
     }
 
+    /**
+     * creates the lazily calculated distances of this vPce now, so that concurrent square evaluations
+     * (see ChessBoard.setParallelSquarePhases()) only need to read them.
+     */
+    void prepareConcurrentReads() {
+        getRawMinDistanceFromPiece().getLastMoveOrigins();
+        getMinDistanceFromPiece();
+        minDistanceSuggestionTo1HopNeighbour();
+        getAllNeighbours();
+    }
+
     /** tells if the rmd is already 1 or may become 1 by another move;
      * Either dist==1 -> Piece can directly move here (or it has a condition by the opponent, which does not count)
      * or dist==2, but 1 comes from a condition that I have to fulfill myself by moving a piece away.
@@ -856,6 +866,11 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
     }
 
     public void addMoveAwayChance(final int benefit, final int futureLevel, final int target) {
+        final ChanceBuffer staged = ChanceBuffer.active();
+        if (staged != null) {
+            staged.stageMoveAwayChance(this, benefit, futureLevel, target);
+            return;
+        }
         if (futureLevel > MAX_INTERESTING_NROF_HOPS || abs(benefit) < 2)
             return;
         if (DEBUGMSG_MOVEEVAL && abs(benefit)>DEBUGMSG_MOVEEVALTHRESHOLD)
@@ -900,16 +915,17 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
             return; // if benefit is negative (a fee/warning) then no counter measures are needed
 
         // add "counter chances" for all opponents moves hindering the first moves towards here
-        Set<Move> firstMovesToHere = getFirstMovesWithReasonableShortestWayToHere();
-        assert(firstMovesToHere!=null);
+        final long firstMovesToHere = getFirstMoveTargetsWithReasonableShortestWayToHere();
+        final int fmFrom = getMyPiecePos();
         // so still, wie Loop over the first moves, to see if there are countermeasures
-        for (Move fm : firstMovesToHere) {
+        for (long fmTargets = firstMovesToHere; fmTargets != 0L; fmTargets &= fmTargets - 1) {
+            final int fmTo = Long.numberOfTrailingZeros(fmTargets);
             if ( !evalIsOkForColByMin( benefit, myPiece().color(), -EVAL_DELTAS_I_CARE_ABOUT) )
                 continue;
             //TODO: always search for all counter moves here after every addChance is ineffective.
             // Should be done later collectively after all Chances are calculated
             // a positive move - see who can cover this square
-            Square toSq = board.getBoardSquare(fm.to());
+            Square toSq = board.getBoardSquare(fmTo);
             VirtualPieceOnSquare vPceAtToSq = toSq.getvPiece(getPieceID());
             final int inFutureLevel = (chanceFutureLevel == 0)
                     ? vPceAtToSq.getStdFutureLevel()  // need to get here
@@ -931,8 +947,8 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
                                 debugPrint(DEBUGMSG_MOVEEVAL, "Telling " + blocker + " to stay: ");
                             blocker.addMoveAwayChance2AllMovesUnlessToBetween(
                                     benefit >> 1, 0,
-                                    fm.to(), getMyPiecePos(), false,
-                                    fm.to() );
+                                    fmTo, getMyPiecePos(), false,
+                                    fmTo );
                         }
                     }
                 }
@@ -941,7 +957,7 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
             // iterate over all opponents who could sufficiently cover my target square.
             if (toSq.isEmpty() ) {   // but only to this if square is empty, because otherwise (clash) this is already calculated by "close future chances"
                 int myattacksAfterMove = toSq.countDirectAttacksWithColor(color());
-                if (!(colorlessPieceType(getPieceType()) == PAWN && fileOf(fm.to()) == fileOf(fm.from())))  // not a straight moving pawn
+                if (!(colorlessPieceType(getPieceType()) == PAWN && fileOf(fmTo) == fileOf(fmFrom)))  // not a straight moving pawn
                     myattacksAfterMove--;   // all moves here (except straight pawn) take away one=my cover from the square.
                 for (VirtualPieceOnSquare opponentAtTarget : toSq.getVPieces()) {
                     if (opponentAtTarget != null
@@ -1031,7 +1047,7 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
                 //else
                 if (inFutureLevel>=3)
                     blockingBenefit >>= (inFutureLevel-1);
-                toSq.getvPiece(getPieceID()).addBenefitToBlockers(fm.from(), chanceFutureLevel, blockingBenefit, target );
+                toSq.getvPiece(getPieceID()).addBenefitToBlockers(fmFrom, chanceFutureLevel, blockingBenefit, target );
             }
             if (DEBUGMSG_MOVEEVAL && abs(benefit)>DEBUGMSG_MOVEEVALTHRESHOLD)
                 debugPrintln(DEBUGMSG_MOVEEVAL, ".");
@@ -1206,14 +1222,20 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
                     if (lmo.getMyPos() == piece2BmovedPos)
                         continue; // would be beating and moving on, but piece2Bmoved is moving away in this scenario
                     // origin is in the same direction
-                    Set<Move> firstMoves = lmo.getFirstMovesWithReasonableShortestWayToHere();
-                    if ( (firstMoves==null || firstMoves.size()==0) ) {
+                    long firstMoves = lmo.getFirstMoveTargetsWithReasonableShortestWayToHere();
+                    if ( firstMoves == 0L ) {
                         if (lmo.getMinDistanceFromPiece().dist() == 0) { // ?? was ==1 but this seems wrong...
-                            firstMoves.add(new Move(lmo.myPos, myPos));  // there is no lmo of the lmo, it is a 1-dist move
+                            final ChanceBuffer staged = ChanceBuffer.active();
+                            if (staged != null)
+                                // the 1st moves are shared with other squares' evaluations, so only change them later
+                                staged.stageFirstMove(lmo, myPos);
+                            else
+                                lmo.addFirstMoveTargetIfNone(myPos);
+                            firstMoves = RayAttacks.posBit(myPos);  // there is no lmo of the lmo, it is a 1-dist move
                             //board.internalErrorPrintln("BLUP: " + this + " , " + lmo + " .");
                         }
                     }
-                    if (firstMoves.size()==1 && lmo.getRawMinDistanceFromPiece().dist() >= 1)
+                    if (Long.bitCount(firstMoves)==1 && lmo.getRawMinDistanceFromPiece().dist() >= 1)
                         benefit >>= 1;  // only one move leads to here, we also look at the first move and the other half is given out below
                     if ( isBetweenFromAndTo(piece2BmovedPos, lmo.myPos,myPos ) ) {
                         counter = max(counter,
@@ -1232,9 +1254,9 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
                     // thus, TODO!: exclusion needs to be extended to previous moves on the way, works only for the last part (or 1-move distance)
                     // e.g. pawn moving straigth in front of rook is still given "move out of the way" bonus for the second part of the journey, where it does not move "in between".
                     // TODO!!!: partial solution is easier: do not call addMoveAwayChance2AllMovesUnlessToBetween() if fromPos is not in the way of the relevant section.
-                    if ( firstMoves.size() != 1 || lmo.getRawMinDistanceFromPiece().dist() < 1 )
+                    if ( Long.bitCount(firstMoves) != 1 || lmo.getRawMinDistanceFromPiece().dist() < 1 )
                         continue;
-                    int nextToPos = firstMoves.iterator().next().to(); // to the target position
+                    int nextToPos = Long.numberOfTrailingZeros(firstMoves); // to the target position
 
                     if ( !isBetweenFromAndTo(piece2BmovedPos, getMyPiecePos(), nextToPos ) )
                         continue;
@@ -1255,7 +1277,12 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
         return counter;
     }
 
-    private void addChanceLowLevel(final int benefit, int futureLevel, final int target) {
+    void addChanceLowLevel(final int benefit, int futureLevel, final int target) {
+        final ChanceBuffer staged = ChanceBuffer.active();
+        if (staged != null) {
+            staged.stageChance(this, benefit, futureLevel, target);
+            return;
+        }
         if (futureLevel<0 || futureLevel>MAX_INTERESTING_NROF_HOPS) {
             if (DEBUGMSG_MOVEEVAL)
                 board.internalErrorPrintln("Error in addChance for " + this + ": invalid futureLevel in benefit " + benefit + "@" + futureLevel);
@@ -1595,6 +1622,11 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
     }
 
     public void addClashContrib(int relClashContrib) {
+        final ChanceBuffer staged = ChanceBuffer.active();
+        if (staged != null) {
+            staged.stageClashContrib(this, relClashContrib);
+            return;
+        }
         this.relClashContrib += relClashContrib;
     }
 
@@ -2208,7 +2240,7 @@ public abstract class VirtualPieceOnSquare implements Comparable<VirtualPieceOnS
 
     void resetPredecessors() {
         shortestReasonableUnconditionedPredecessors = null;
-        firstMovesWithReasonableShortestWayToHere = null;
+        firstMoveTargetsRemembered = false;
     }
 
     /** looks if a particular fromPos is straight above this position.
@@ -878,11 +878,11 @@ public class VirtualSlidingPieceOnSquare extends VirtualPieceOnSquare {
             int toCond = rawMinDistance.getToCond(i);
             if ( ( fromCond < 0
                       || ( fromCond >= 0
-                           && isBetweenFromAndTo(fromCond, getMyPiecePos(), myPos) ) )
+                           && RayAttacks.isBetween(fromCond, getMyPiecePos(), myPos) ) )
                  && ( toCond < 0
                       || ( toCond >= 0
                            && (toCond == myPos
-                               || isBetweenFromAndTo(toCond, getMyPiecePos(), myPos)) ) )
+                               || RayAttacks.isBetween(toCond, getMyPiecePos(), myPos)) ) )
             ) {
                 helpfulConditions++;
             }
@@ -985,25 +985,26 @@ public class VirtualSlidingPieceOnSquare extends VirtualPieceOnSquare {
     protected List<VirtualPieceOnSquare> getAllNeighbours() {
         if (allNeighbours != null)
             return allNeighbours;
-        allNeighbours = new ArrayList<>(16);
+        // filled locally and only published when complete (see also prepareConcurrentReads())
+        final List<VirtualPieceOnSquare> neighbours = new ArrayList<>(16);
+        final long occupied = board.getOccupiedBitmap();
         for (int di=0; di<slidingNeighbours.length; di++) {
             if (slidingNeighbours[di] != null && slidingNeighbours[di] != this) {
-                allNeighbours.addAll(slidingNeighbours[di].getAllNeighboursInDirIndex(di));
+                // the ray tells directly how far we get in this direction, same order as before: furthest first
+                final long reached = RayAttacks.rayAttacks(di, myPos, occupied);
+                final int dir = RayAttacks.dirOfDirIndex(di);
+                final int firstIndex = neighbours.size();
+                int p = myPos;
+                for (int n = Long.bitCount(reached); n > 0; n--) {
+                    p += dir;
+                    neighbours.add(firstIndex, board.getBoardSquare(p).getvPiece(myPceID));
+                }
             }
         }
+        allNeighbours = neighbours;
         return allNeighbours;
     }
 
-    protected List<VirtualPieceOnSquare> getAllNeighboursInDirIndex(int di) {
-        List<VirtualPieceOnSquare> res;
-        if (board.isSquareEmpty(getMyPos()) && slidingNeighbours[di]!=null && slidingNeighbours[di]!=this)
-            res = slidingNeighbours[di].getAllNeighboursInDirIndex(di);
-        else
-            res = new ArrayList<>(7);
-        res.add(this);
-        return res;
-    }
-
 
     @Override
     public Set<VirtualPieceOnSquare> calcPredecessors() {
@@ -1088,9 +1089,9 @@ public class VirtualSlidingPieceOnSquare extends VirtualPieceOnSquare {
     }
 
     public boolean canDirectlyGoTo(int targetPos) {
-        // oooch, bad manual test, but not directly in the data
-        return isCorrectSlidingPieceDirFromTo(getPieceType(), getMyPos(), targetPos)
-                && board.allSquaresEmptyFromTo(getMyPos(), targetPos );
+        // not directly in the data, but the ray attacks on the current occupancy tell it
+        return RayAttacks.isPosInBitmap(targetPos,
+                RayAttacks.slidingAttacks(getPieceType(), getMyPos(), board.getOccupiedBitmap()) );
     }
 }
 
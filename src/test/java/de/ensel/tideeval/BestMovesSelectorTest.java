@@ -0,0 +1,84 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import org.junit.jupiter.api.Test;
+
+import static de.ensel.chessbasics.ChessBasics.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BestMovesSelectorTest {
+
+    private static EvaluatedMove evMove(int to, int eval) {
+        EvaluatedMove em = new EvaluatedMove(coordinateString2Pos("a1"), to);
+        em.initEval(eval);
+        return em;
+    }
+
+    @Test
+    void keepsTopMovesSortedAndSpillsRest_Test() {
+        BestMovesSelector selector = new BestMovesSelector(WHITE, 2);
+        assertTrue(selector.add(evMove(1, 100)));
+        assertFalse(selector.add(evMove(2, -200)));
+        assertTrue(selector.add(evMove(3, 500)));      // -200 drops out of the top
+        assertFalse(selector.add(evMove(4, -400)));    // directly into the rest
+        assertEquals(4, selector.size());
+        assertEquals(2, selector.getTopMoves().size());
+        assertEquals(3, selector.getTopMoves().get(0).to());
+        assertEquals(1, selector.getTopMoves().get(1).to());
+        assertEquals(2, selector.getRestMoves().size());
+        assertEquals(2, selector.getRestMoves().get(0).to());
+        assertEquals(4, selector.getRestMoves().get(1).to());
+
+        // reused with more top entries and for black, lower is better
+        selector = new BestMovesSelector(BLACK, 1);
+        selector.add(evMove(1, 100));
+        selector.clear(3);
+        assertEquals(0, selector.size());
+        selector.add(evMove(1, 100));
+        selector.add(evMove(2, -300));
+        selector.add(evMove(3, 0));
+        assertEquals(3, selector.getTopMoves().size());
+        assertEquals(2, selector.getTopMoves().get(0).to());
+        assertEquals(3, selector.getTopMoves().get(1).to());
+        assertEquals(1, selector.getTopMoves().get(2).to());
+        assertTrue(selector.getRestMoves().isEmpty());
+    }
+
+    @Test
+    void certainlyRejects_Test() {
+        BestMovesSelector selector = new BestMovesSelector(WHITE, 2);
+        selector.add(evMove(1, 100));
+        assertFalse(selector.certainlyRejects(-1000));   // there is still room in the top moves
+        selector.add(evMove(2, 50));
+        assertTrue(selector.certainlyRejects(0));
+        assertFalse(selector.certainlyRejects(40));      // close to the worst top move, later levels could decide
+        assertFalse(selector.certainlyRejects(200));
+        // whatever the further levels are, a move with eval[0] not better than the bound is rejected
+        EvaluatedMove candidate = evMove(3, 0);
+        candidate.addEval(1000, 1);
+        selector.add(candidate);
+        assertEquals(3, selector.getRestMoves().get(0).to());
+
+        selector = new BestMovesSelector(BLACK, 1);
+        selector.add(evMove(1, -100));
+        assertTrue(selector.certainlyRejects(0));
+        assertFalse(selector.certainlyRejects(-300));
+    }
+}
@@ -26,6 +26,8 @@ import org.junit.jupiter.params.provider.CsvSource;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static de.ensel.chessbasics.ChessBasics.*;
@@ -435,6 +437,207 @@ class ChessBoardTest {
 
 
 
+    @Test
+    void chessBoard_Metrics_Test() {
+        ChessBoard board = new ChessBoard("MetricsTestBoard", FENPOS_STARTPOS);
+        board.doMove("e2e4");
+        board.getBestMove();
+        BoardMetrics metrics = board.getMetrics();
+        assertTrue(metrics.getPropagations() > 0);
+        assertTrue(metrics.getPropagations(PAWN, 1) > 0);
+        assertEquals(0, metrics.getPropagations(PAWN, MAX_INTERESTING_NROF_HOPS + 3));
+        assertTrue(metrics.getQueHighWaterMark() > 0);
+        assertTrue(metrics.getVPceResets() > 0);
+        assertTrue(metrics.getPhaseNanos(BoardMetrics.Phase.DISTANCE_CALC) > 0);
+        assertTrue(metrics.getPhaseNanos(BoardMetrics.Phase.MOVE_SELECTION) > 0);
+        metrics.reset();
+        assertEquals(0, metrics.getPropagations());
+        assertEquals(0, metrics.getTotalNanos());
+    }
+
+    private static final String FEN_PAWNS1 = "4k3/p1p2p2/1p1p2p1/PP1P3p/3p2PP/2P5/5P2/4K3 w - - 0 1";
+    private static final String FEN_PAWNS2 = "1r2k1n1/P1P3P1/8/8/8/8/p3p2p/1N2K1R1 w - - 0 1";
+    private static final String FEN_PAWNS3 = "4k3/1P3pp1/8/3p4/2P1P3/8/5p2/4K1N1 w - - 0 1"
+                                             + " moves c4d5 f2g1q b7b8q g7g5 e4e5 f7f6 e5f6";
+
+    /**
+     * distances of each pawn to all squares (rank 8 first, '-' for unreachable), as recorded from the
+     * propagation neighbour by neighbour before the forward sweep over PAWN_SUCCESSORS replaced it
+     */
+    private static final String[][] PAWN_DISTANCES = {
+            // blocked files and pawns that can take
+            { FEN_PAWNS1, "a7", "--------/0-------/11------/252-----/3333----/44444---/555555--/6666666-" },
+            { FEN_PAWNS1, "c7", "--------/--0-----/-111----/25122---/322233--/4343344-/55554455/66665556" },
+            { FEN_PAWNS1, "f7", "--------/-----0--/----111-/---22122/--332223/-4433333/55444544/65556665" },
+            { FEN_PAWNS1, "b6", "--------/--------/-0------/141-----/2222----/33333---/444444--/5555555-" },
+            { FEN_PAWNS1, "d6", "--------/--------/---0----/--141---/-22222--/3333333-/44444444/55555555" },
+            { FEN_PAWNS1, "g6", "--------/--------/------0-/-----111/----2222/---33333/--444444/-5555555" },
+            { FEN_PAWNS1, "a5", "3333----/222-----/11------/0-------/--------/--------/--------/--------" },
+            { FEN_PAWNS1, "b5", "33333---/3232----/121-----/-0------/--------/--------/--------/--------" },
+            { FEN_PAWNS1, "d5", "3333333-/-25222--/--141---/---0----/--------/--------/--------/--------" },
+            { FEN_PAWNS1, "h5", "--------/--------/--------/-------0/------14/-----222/----3333/---44444" },
+            { FEN_PAWNS1, "d4", "--------/--------/--------/--------/---0----/--111---/-22222--/3333333-" },
+            { FEN_PAWNS1, "g4", "--444444/---33333/----2222/-----111/------0-/--------/--------/--------" },
+            { FEN_PAWNS1, "h4", "---45555/----3444/-----233/------12/-------0/--------/--------/--------" },
+            { FEN_PAWNS1, "c3", "55555555/444-444-/336-63--/22222---/-111----/--0-----/--------/--------" },
+            { FEN_PAWNS1, "f2", "65555555/55444444/-4433333/--332223/---22122/----111-/-----0--/--------" },
+            // promotion ranks reachable directly and by taking
+            { FEN_PAWNS2, "a7", "11------/0-------/--------/--------/--------/--------/--------/--------" },
+            { FEN_PAWNS2, "c7", "-111----/--0-----/--------/--------/--------/--------/--------/--------" },
+            { FEN_PAWNS2, "g7", "-----121/------0-/--------/--------/--------/--------/--------/--------" },
+            { FEN_PAWNS2, "a2", "--------/--------/--------/--------/--------/--------/0-------/11------" },
+            { FEN_PAWNS2, "e2", "--------/--------/--------/--------/--------/--------/----0---/---121--" },
+            { FEN_PAWNS2, "h2", "--------/--------/--------/--------/--------/--------/-------0/------11" },
+            // distances that were updated while pawns took and promoted
+            { FEN_PAWNS3, "f6", "---22222/----111-/-----0--/--------/--------/--------/--------/--------" },
+            { FEN_PAWNS3, "d5", "3333333-/-22222--/--111---/---0----/--------/--------/--------/--------" },
+            { FEN_PAWNS3, "g5", "--------/--------/--------/------0-/-----111/----2222/---33333/--444454" }
+    };
+
+    @Test
+    void chessBoard_PawnSuccessorSweep_Test() {
+        String lastFen = null;
+        ChessBoard board = null;
+        for (String[] expected : PAWN_DISTANCES) {
+            if (!expected[0].equals(lastFen)) {
+                lastFen = expected[0];
+                board = new ChessBoard("PawnSweepBoard", lastFen);
+            }
+            int pceId = board.getPieceIdAt(coordinateString2Pos(expected[1]));
+            assertTrue(isPawn(board.getPiece(pceId).getPieceType()));
+            StringBuilder distances = new StringBuilder();
+            for (int pos = 0; pos < NR_SQUARES; pos++) {
+                if (pos > 0 && pos % 8 == 0)
+                    distances.append('/');
+                int d = board.getBoardSquare(pos).getConditionalDistanceToPieceId(pceId).dist();
+                distances.append(d > 9 ? '-' : (char) ('0' + d));
+            }
+            assertEquals(expected[2], distances.toString(), "pawn on " + expected[1] + " in " + lastFen);
+        }
+    }
+
+    @Test
+    void chessBoard_ParallelSquarePhases_Test() {
+        assertParallelModeGivesSameResults(ChessBoard::isParallelSquarePhases, ChessBoard::setParallelSquarePhases,
+                FENPOS_STARTPOS + " moves e2e4 e7e5 g1f3 b8c6 f1b5",
+                "r1bqk2r/p1pp1ppp/4p3/8/1n1P4/NP6/PB4PP/R3KQNR w KQkq - 0 13",
+                "r4rk1/1b1nbppp/1pq1pn2/p1p5/3P1B2/P1NQ1NP1/1P2PPBP/R2R2K1 w - - 4 16");
+    }
+
+    @Test
+    void chessBoard_ParallelSquarePhasesForks_Test() {
+        // the fork phases read the neighbours of the same vPces from many squares at once
+        assertParallelModeGivesSameResults(ChessBoard::isParallelSquarePhases, ChessBoard::setParallelSquarePhases,
+                "4k3/8/2r3q1/8/8/5N2/8/4K3 w - - 0 1",
+                "4k3/8/8/2n1b3/8/3P4/8/4K3 w - - 0 1",
+                "r1bqk2r/pppp1ppp/2n2n2/2b1p1N1/2B1P3/8/PPPP1PPP/RNBQK2R w KQkq - 6 5",
+                "r3k2r/pb3ppp/1p2pn2/q7/1bBP4/2N1BQ2/PP3PPP/R3K2R b KQkq - 0 12",
+                "2r3k1/5ppp/1q6/3N4/8/6Q1/5PPP/3R2K1 w - - 0 1");
+    }
+
+    @Test
+    void chessBoard_ParallelMoveReevaluation_Test() {
+        assertParallelModeGivesSameResults(ChessBoard::isParallelMoveReevaluation, ChessBoard::setParallelMoveReevaluation,
+                FENPOS_STARTPOS + " moves e2e4 e7e5 g1f3 b8c6 f1b5",
+                "r1bqk2r/p1pp1ppp/4p3/8/1n1P4/NP6/PB4PP/R3KQNR w KQkq - 0 13",
+                "r4rk1/1b1nbppp/1pq1pn2/p1p5/3P1B2/P1NQ1NP1/1P2PPBP/R2R2K1 w - - 4 16",
+                // no opponent moves left after some moves (stalemate-ish), game is not over
+                "7k/5Q2/6K1/8/8/8/8/8 w - - 0 1");
+    }
+
+    /**
+     * checks that the board calculates the same move and evaluation with a parallel mode switched on as without
+     * @param isParallel getter of the static switch of the parallel mode
+     * @param setParallel setter of that switch, it is restored afterwards
+     */
+    private static void assertParallelModeGivesSameResults(BooleanSupplier isParallel, Consumer<Boolean> setParallel,
+                                                           String... fens) {
+        boolean wasParallel = isParallel.getAsBoolean();
+        try {
+            for (String fen : fens) {
+                setParallel.accept(false);
+                ChessBoard sequentialBoard = new ChessBoard("SequentialBoard", fen);
+                String sequentialMove = sequentialBoard.getMove();
+                setParallel.accept(true);
+                ChessBoard parallelBoard = new ChessBoard("ParallelBoard", fen);
+                assertEquals(sequentialMove, parallelBoard.getMove());
+                assertEquals(sequentialBoard.boardEvaluation(1), parallelBoard.boardEvaluation(1));
+                assertEquals(sequentialBoard.isGameOver(), parallelBoard.isGameOver());
+            }
+        } finally {
+            setParallel.accept(wasParallel);
+        }
+    }
+
+    @Test
+    void chessBoard_moveIsNotBlockedByKingPin_Test() {
+        ChessBoard board = new ChessBoard("TestBoard", "4k3/4r3/8/8/1B6/8/4R3/4K3 w - - 0 1");
+        ChessPiece rook = board.getPieceAt(coordinateString2Pos("e2"));
+        assertTrue(board.isPiecePinnedToPos(rook, coordinateString2Pos("e1")));
+        assertTrue(board.moveIsNotBlockedByKingPin(rook, coordinateString2Pos("e5")));
+        assertTrue(board.moveIsNotBlockedByKingPin(rook, coordinateString2Pos("e7")));
+        assertFalse(board.moveIsNotBlockedByKingPin(rook, coordinateString2Pos("d2")));
+        // after the pinning rook is gone, the pin map of the new position knows it
+        assertTrue(board.doMove("b4e7"));
+        assertTrue(board.doMove("e8e7"));
+        assertFalse(board.isPiecePinnedToPos(rook, coordinateString2Pos("e1")));
+        assertTrue(board.moveIsNotBlockedByKingPin(rook, coordinateString2Pos("d2")));
+    }
+
+    @Test
+    void chessBoard_KingAreaEvaluation_Test() {
+        ChessBoard board = new ChessBoard("TestBoard", FENPOS_STARTPOS);
+        String[] moves = { "e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "f8c5", "e1g1", "g8f6", "d2d3", "e8g8",
+                           "g1h1", "d7d6", "c1g5", "h7h6", "g5f6", "d8f6" };
+        for (String move : moves) {
+            assertTrue(board.doMove(move));
+            int[] attack = {0, 0, 0, 0};
+            int[] defense = {0, 0, 0, 0};
+            for (int pos = 0; pos < NR_SQUARES; pos++) {
+                int dbk = board.distanceToKing(pos, BLACK);
+                int dwk = board.distanceToKing(pos, WHITE);
+                int whiteValue = board.getBoardSquare(pos).getAttacksValueForColor(WHITE);
+                int blackValue = board.getBoardSquare(pos).getAttacksValueForColor(BLACK);
+                if (dbk < 4) {
+                    attack[dbk] += whiteValue;
+                    defense[dbk] -= blackValue;
+                }
+                if (dwk < 4) {
+                    attack[dwk] -= blackValue;
+                    defense[dwk] += whiteValue;
+                }
+            }
+            assertEquals(attack[1] * 2 + attack[2] + attack[3] / 3, board.evaluateOpponentKingAreaAttack(), move);
+            assertEquals(defense[1] + defense[2] + defense[3] / 4, board.evaluateOwnKingAreaDefense(), move);
+        }
+    }
+
+    @Test
+    void chessBoard_AttackIndex_Test() {
+        ChessBoard board = new ChessBoard("TestBoard", FENPOS_STARTPOS + " moves e2e4 e7e5 g1f3 b8c6 f1b5");
+        AttackIndex attackIndex = board.getAttackIndex();
+        // f3-knight covers e5 directly, bishop b5 attacks c6
+        assertTrue(attackIndex.isAttackedAt(CIWHITE, 1, coordinateString2Pos("e5")));
+        assertTrue(attackIndex.isAttackedAt(CIWHITE, 1, coordinateString2Pos("c6")));
+        assertFalse(attackIndex.isAttackedAt(CIWHITE, 1, coordinateString2Pos("h6")));
+        // index agrees with the vPces everywhere
+        for (int pos = 0; pos < NR_SQUARES; pos++)
+            for (int ci = 0; ci <= 1; ci++)
+                for (int level = 0; level <= MAX_INTERESTING_NROF_HOPS; level++) {
+                    boolean attacked = false;
+                    boolean reachable = false;
+                    for (VirtualPieceOnSquare vPce : board.getBoardSquare(pos).getVPieces()) {
+                        if (vPce == null || colorIndex(vPce.color()) != ci)
+                            continue;
+                        attacked |= vPce.coverOrAttackDistance() == level;
+                        reachable |= vPce.getRawMinDistanceFromPiece().dist() == level
+                                     && !vPce.getRawMinDistanceFromPiece().hasNoGo();
+                    }
+                    assertEquals(attacked, attackIndex.isAttackedAt(ci, level, pos));
+                    assertEquals(reachable, attackIndex.isReachableAt(ci, level, pos));
+                }
+    }
+
     @Test
     void chessBoard_VirtualPieceOnSquare_getShortestPredecessors_Test1() {
         ChessBoard board = new ChessBoard("TestBoard", "r4rk1/1b1nbppp/1pq1pn2/p1p5/3P1B2/P1NQ1NP1/1P2PPBP/R2R2K1 w - - 4 16");
@@ -0,0 +1,98 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import org.junit.jupiter.api.Test;
+
+import static de.ensel.chessbasics.ChessBasics.*;
+import static de.ensel.tideeval.ClashResultCache.NOT_CACHED;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClashResultCacheTest {
+
+    @Test
+    void lookupAndEviction_Test() {
+        ClashResultCache cache = new ClashResultCache(2);
+        cache.startKey(WHITE, -300, false, false);
+        assertEquals(NOT_CACHED, cache.lookup());
+        cache.store(300);
+        cache.startKey(WHITE, -300, false, false);
+        assertEquals(300, cache.lookup());
+        // other side to move or extra king pin coverage is a different clash
+        cache.startKey(BLACK, -300, false, false);
+        assertEquals(NOT_CACHED, cache.lookup());
+        cache.store(0);
+        cache.startKey(WHITE, -300, false, false);
+        assertEquals(300, cache.lookup());   // now used more recently than BLACK
+        cache.startKey(WHITE, -300, true, false);
+        assertEquals(NOT_CACHED, cache.lookup());
+        cache.store(-10);
+        // capacity is 2, so the least recently used (BLACK) is gone
+        assertEquals(2, cache.size());
+        cache.startKey(BLACK, -300, false, false);
+        assertEquals(NOT_CACHED, cache.lookup());
+        cache.startKey(WHITE, -300, false, false);
+        assertEquals(300, cache.lookup());
+        assertEquals(3, cache.getHits());
+        assertEquals(7, cache.getLookups());
+    }
+
+    @Test
+    void allThreadsStatistics_Test() throws InterruptedException {
+        final long lookupsBefore = ClashResultCache.getAllThreadsLookups();
+        final ClashResultCache[] workerCache = new ClashResultCache[1];
+        Thread worker = new Thread(() -> {
+            workerCache[0] = ClashResultCache.forCurrentThread();
+            workerCache[0].startKey(WHITE, -300, false, false);
+            workerCache[0].lookup();
+        });
+        worker.start();
+        worker.join();
+        assertNotSame(ClashResultCache.forCurrentThread(), workerCache[0]);
+        // the lookup of the other thread is counted as well
+        assertTrue(ClashResultCache.getAllThreadsLookups() >= lookupsBefore + 1);
+    }
+
+    @Test
+    void attackersInSignature_Test() {
+        ChessBoard board = new ChessBoard("CacheTestBoard", FENPOS_STARTPOS);
+        // two knights of white on the same square give the same signature, regardless of which knight
+        int f3 = coordinateString2Pos("f3");
+        VirtualPieceOnSquare n1 = board.getBoardSquare(f3).getvPiece(board.getPieceIdAt(coordinateString2Pos("g1")));
+        VirtualPieceOnSquare n2 = board.getBoardSquare(f3).getvPiece(board.getPieceIdAt(coordinateString2Pos("b1")));
+        VirtualPieceOnSquare p = board.getBoardSquare(f3).getvPiece(board.getPieceIdAt(coordinateString2Pos("g2")));
+        ClashResultCache cache = new ClashResultCache(10);
+        cache.startKey(BLACK, 0, false, false);
+        assertTrue(cache.addAttackers(new VirtualPieceOnSquare[]{p, n1}, 0, 2, null));
+        cache.nextSide();
+        cache.lookup();
+        cache.store(42);
+        cache.startKey(BLACK, 0, false, false);
+        assertTrue(cache.addAttackers(new VirtualPieceOnSquare[]{p, n2, n1}, 0, 3, n1));
+        cache.nextSide();
+        assertEquals(42, cache.lookup());
+        // but the order of values matters
+        cache.startKey(BLACK, 0, false, false);
+        assertTrue(cache.addAttackers(new VirtualPieceOnSquare[]{n2, p}, 0, 2, null));
+        cache.nextSide();
+        assertEquals(NOT_CACHED, cache.lookup());
+        // an excluded vPce that appears twice cannot be represented
+        assertFalse(cache.addAttackers(new VirtualPieceOnSquare[]{n1, p, n1}, 0, 3, n1));
+    }
+}
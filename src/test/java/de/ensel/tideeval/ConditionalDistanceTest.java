@@ -173,5 +173,15 @@ class ConditionalDistanceTest {
         debugPrintln(true, "d1-after condition check: "+d1);
         assertEquals(2, d1.nrOfConditions());
         assertEquals(1, ml.size() );
+
+        // same with packed moves
+        MoveList pml = new MoveList();
+        pml.add(18, 20);
+        assertEquals(-1, d1.movesFulfillConditions(pml) );
+        pml.add(19, 20);
+        assertEquals(2, d1.movesFulfillConditions(pml) );
+        assertEquals(19, pml.from(1));
+        assertEquals(20, pml.to(1));
+        assertEquals(new Move(19, 20), pml.toMoves().get(1));
     }
-}
\ No newline at end of file
+}
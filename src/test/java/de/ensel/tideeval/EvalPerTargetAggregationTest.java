@@ -0,0 +1,84 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import org.junit.jupiter.api.Test;
+
+import static de.ensel.chessbasics.ChessBasics.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvalPerTargetAggregationTest {
+
+    @Test
+    void addAndAggregatePerTarget_Test() {
+        EvalPerTargetAggregation agg = new EvalPerTargetAggregation(WHITE);
+        assertTrue(agg.add(100, 0, 40));
+        assertTrue(agg.add(50, 1, 3));
+        assertFalse(agg.add(20, 0, 40));     // same target, just added up
+        assertTrue(agg.add(7, 0, ANYWHERE));
+        assertEquals(3, agg.size());
+        assertEquals(120, agg.getEvMove(40).getEvalAt(0));
+        assertEquals(50, agg.getEvMove(3).getEvalAt(1));
+        assertNull(agg.getEvMove(4));
+        // position targets are iterated in ascending order, ANYWHERE last
+        int[] expectedTargets = {3, 40, ANYWHERE};
+        int i = 0;
+        for (Evaluation ev : agg)
+            assertEquals(expectedTargets[i++], ev.getTarget());
+        assertEquals(127, agg.getAggregatedEval().getEvalAt(0));
+        assertEquals(50, agg.getAggregatedEval().getEvalAt(1));
+
+        // aggregating in: new targets are taken over, same targets are maxed
+        EvalPerTargetAggregation more = new EvalPerTargetAggregation(WHITE);
+        more.add(200, 0, 40);
+        more.add(30, 0, 63);
+        agg.aggregateIn(more);
+        assertEquals(4, agg.size());
+        assertEquals(200, agg.getEvMove(40).getEvalAt(0));
+        assertEquals(30, agg.getEvMove(63).getEvalAt(0));
+        assertEquals(237, agg.getAggregatedEval().getEvalAt(0));
+        assertEquals(50, agg.getAggregatedEval().getEvalAt(1));
+
+        // copies are independent
+        EvalPerTargetAggregation copy = new EvalPerTargetAggregation(agg);
+        copy.add(1, 0, 3);
+        assertEquals(0, agg.getEvMove(3).getEvalAt(0));
+        assertEquals(1, copy.getEvMove(3).getEvalAt(0));
+        assertEquals(238, copy.getAggregatedEval().getEvalAt(0));
+        assertEquals(1, agg.filterTarget(63).size());
+        assertEquals(0, agg.filterTarget(5).size());
+
+        // taken over evaluations are not shared, changing them via more does not bypass the aggregate of agg
+        more.add(1000, 0, 63);
+        assertEquals(30, agg.getEvMove(63).getEvalAt(0));
+        assertEquals(237, agg.getAggregatedEval().getEvalAt(0));
+        // the same holds for the evaluations handed out
+        agg.getEvMove(63).addEval(1000, 0);
+        for (Evaluation ev : agg)
+            ev.addEval(1000, 0);
+        assertEquals(30, agg.getEvMove(63).getEvalAt(0));
+        assertEquals(237, agg.getAggregatedEval().getEvalAt(0));
+
+        // time warp moves the aggregate along
+        agg.timeWarp(+1);
+        assertEquals(0, agg.getAggregatedEval().getEvalAt(0));
+        assertEquals(237, agg.getAggregatedEval().getEvalAt(1));
+        assertEquals(50, agg.getAggregatedEval().getEvalAt(2));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static de.ensel.chessbasics.ChessBasics.*;
+import static de.ensel.tideeval.RayAttacks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HindranceMasksTest {
+
+    @Test
+    void blockingAndVacating_Test() {
+        int a1 = coordinateString2Pos("a1");
+        int a5 = coordinateString2Pos("a5");
+        int g1 = coordinateString2Pos("g1");
+        int f3 = coordinateString2Pos("f3");
+        EvaluatedMove rookMove = new EvaluatedMove(a1, a5);
+        EvaluatedMove knightMove = new EvaluatedMove(g1, f3);
+        // from square plus the squares in between, nothing in between for knights
+        assertEquals(posBit(a1) | betweenBitmap(a1, a5), HindranceMasks.blockingMask(rookMove));
+        assertEquals(4, Long.bitCount(HindranceMasks.blockingMask(rookMove)));
+        assertEquals(posBit(g1), HindranceMasks.blockingMask(knightMove));
+
+        HindranceMasks masks = new HindranceMasks();
+        masks.build(List.of(rookMove, knightMove));
+        assertEquals(HindranceMasks.blockingMask(knightMove), masks.blockingMask(1));
+        // blocking the rook, taking the knight and moving away from the rook's target
+        assertTrue(masks.mightHinderAny(new Move(coordinateString2Pos("h3"), coordinateString2Pos("a3"))));
+        assertTrue(masks.mightHinderAny(new Move(coordinateString2Pos("h2"), g1)));
+        assertTrue(masks.mightHinderAny(new Move(a5, coordinateString2Pos("b5"))));
+        // nothing to do with both moves
+        assertFalse(masks.mightHinderAny(new Move(coordinateString2Pos("h8"), coordinateString2Pos("h7"))));
+        assertFalse(masks.mightHinderAny(new Move(coordinateString2Pos("b2"), f3)));
+
+        masks.build(null);
+        assertFalse(masks.mightHinderAny(new Move(coordinateString2Pos("h3"), coordinateString2Pos("a3"))));
+    }
+}
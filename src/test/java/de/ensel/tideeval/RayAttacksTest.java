@@ -0,0 +1,83 @@
+/*
+ *     TideEval - Wired New Chess Algorithm
+ *     Copyright (C) 2023 Christian Ensel
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.ensel.tideeval;
+
+import org.junit.jupiter.api.Test;
+
+import static de.ensel.chessbasics.ChessBasics.*;
+import static de.ensel.tideeval.RayAttacks.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RayAttacksTest {
+
+    @Test
+    void slidingAttacks_Test() {
+        int a1 = coordinateString2Pos("a1");
+        int d4 = coordinateString2Pos("d4");
+        int d6 = coordinateString2Pos("d6");
+        int f6 = coordinateString2Pos("f6");
+        long occupied = posBit(d6) | posBit(f6);
+
+        // empty board
+        assertEquals(14, Long.bitCount(slidingAttacks(ROOK, a1, 0L)));
+        assertEquals(7, Long.bitCount(slidingAttacks(BISHOP_BLACK, a1, 0L)));
+        assertEquals(27, Long.bitCount(slidingAttacks(QUEEN, d4, 0L)));
+        assertEquals(0L, slidingAttacks(KNIGHT, d4, 0L));
+
+        // blockers are reached, but nothing behind them
+        long rookAttacks = slidingAttacks(ROOK, d4, occupied);
+        assertTrue(isPosInBitmap(coordinateString2Pos("d5"), rookAttacks));
+        assertTrue(isPosInBitmap(d6, rookAttacks));
+        assertFalse(isPosInBitmap(coordinateString2Pos("d7"), rookAttacks));
+        assertEquals(12, Long.bitCount(rookAttacks));
+        long bishopAttacks = slidingAttacks(BISHOP, d4, occupied);
+        assertTrue(isPosInBitmap(f6, bishopAttacks));
+        assertFalse(isPosInBitmap(coordinateString2Pos("g7"), bishopAttacks));
+    }
+
+    @Test
+    void betweenBitmap_Test() {
+        int a1 = coordinateString2Pos("a1");
+        int h8 = coordinateString2Pos("h8");
+        assertEquals(6, Long.bitCount(betweenBitmap(a1, h8)));
+        assertEquals(betweenBitmap(a1, h8), betweenBitmap(h8, a1));
+        assertTrue(isPosInBitmap(coordinateString2Pos("e5"), betweenBitmap(a1, h8)));
+        assertEquals(0L, betweenBitmap(a1, coordinateString2Pos("b2")));
+        assertEquals(0L, betweenBitmap(a1, coordinateString2Pos("b3")));
+    }
+
+    @Test
+    void lineBitmap_isBetween_Test() {
+        int a1 = coordinateString2Pos("a1");
+        int c3 = coordinateString2Pos("c3");
+        int e5 = coordinateString2Pos("e5");
+        assertEquals(8, Long.bitCount(lineBitmap(a1, c3)));
+        assertEquals(lineBitmap(a1, c3), lineBitmap(e5, c3));
+        assertTrue(isPosInBitmap(coordinateString2Pos("h8"), lineBitmap(c3, e5)));
+        assertEquals(8, Long.bitCount(lineBitmap(coordinateString2Pos("c1"), c3)));
+        assertEquals(0L, lineBitmap(a1, coordinateString2Pos("b3")));
+
+        assertTrue(isBetween(c3, a1, e5));
+        assertTrue(isBetween(c3, e5, a1));
+        assertFalse(isBetween(a1, c3, e5));
+        assertFalse(isBetween(e5, a1, e5));
+        assertFalse(isBetween(NOWHERE, a1, e5));
+        assertFalse(isBetween(c3, ANYWHERE, e5));
+    }
+}